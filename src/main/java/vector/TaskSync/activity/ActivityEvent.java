@@ -0,0 +1,18 @@
+package vector.TaskSync.activity;
+
+import vector.TaskSync.models.ActivityType;
+
+/**
+ * Published by the services for each mutation worth keeping in the activity log. Only events of
+ * committed transactions are logged.
+ */
+public record ActivityEvent(ActivityType type, Long taskId, Long teamId, Object from, Object to) {
+
+    public static ActivityEvent onTask(ActivityType type, Long taskId, Object from, Object to) {
+        return new ActivityEvent(type, taskId, null, from, to);
+    }
+
+    public static ActivityEvent onTeam(ActivityType type, Long teamId, Object from, Object to) {
+        return new ActivityEvent(type, null, teamId, from, to);
+    }
+}
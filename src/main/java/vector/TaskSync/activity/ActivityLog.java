@@ -0,0 +1,155 @@
+package vector.TaskSync.activity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.models.Activity;
+import vector.TaskSync.repositories.ActivityRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind activity log. Committed {@link ActivityEvent}s are turned into rows on the request
+ * thread and queued in an {@link ActivityRingBuffer}, which never blocks; when it is full the
+ * activity is dropped and counted. A single writer thread drains the buffer and inserts the rows
+ * in JDBC batches, which the Postgres driver rewrites into multi-row inserts. A batch that cannot
+ * be written is kept and retried on the next flush while new activity queues up behind it.
+ */
+@Component
+public class ActivityLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLog.class);
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    private final ActivityRepository activityRepository;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate transactionTemplate;
+    private final ActivityRingBuffer<Activity> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+
+    // Only touched on the writer thread, or on shutdown once it has stopped
+    private final List<Activity> batch = new ArrayList<>();
+    private volatile ScheduledExecutorService executor;
+
+    public ActivityLog(ActivityRepository activityRepository,
+                       AuditorAware<String> auditorAware,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${application.activity.buffer-size:65536}") int bufferSize,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                       @Value("${application.activity.flush-interval:200ms}") Duration flushInterval) {
+        this.activityRepository = activityRepository;
+        this.auditorAware = auditorAware;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ActivityRingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.droppedCounter = Counter.builder("activity.dropped")
+                .description("Activity entries dropped because the write-behind buffer was full")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("activity.written")
+                .description("Activity entries inserted by the write-behind flush")
+                .register(meterRegistry);
+        meterRegistry.gauge("activity.buffer.size", buffer, ActivityRingBuffer::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ScheduledExecutorService started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "activity-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        started.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        executor = started;
+        logger.info("Activity log started: {} entries buffered, flushed every {} ms", buffer.capacity(), flushIntervalMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        Activity activity = new Activity();
+        activity.setType(event.type());
+        activity.setTaskId(event.taskId());
+        activity.setTeamId(event.teamId());
+        activity.setActor(auditorAware.getCurrentAuditor().orElse(null));
+        activity.setFromValue(truncate(event.from()));
+        activity.setToValue(truncate(event.to()));
+        activity.setOccurredAt(LocalDateTime.now());
+        if (!buffer.offer(activity)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes everything buffered so far, one batch per transaction. Returns the number of rows
+     * written; stops at the first batch that fails, which stays pending.
+     */
+    int flush() {
+        int written = 0;
+        while (true) {
+            if (batch.isEmpty() && buffer.drainTo(batch, batchSize) == 0) {
+                return written;
+            }
+            transactionTemplate.executeWithoutResult(status -> activityRepository.saveAll(batch));
+            written += batch.size();
+            writtenCounter.increment(batch.size());
+            batch.clear();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Ids handed out for the failed attempt are discarded so the retry inserts again
+            batch.forEach(activity -> activity.setId(null));
+            logger.warn("Could not write {} activity entries, {} more buffered: {}", batch.size(), buffer.size(), e.getMessage());
+        }
+    }
+
+    private static String truncate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString();
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) : text;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ScheduledExecutorService current = executor;
+        boolean stopped = true;
+        if (current != null) {
+            current.shutdown();
+            try {
+                stopped = current.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = false;
+            }
+        }
+        // Whatever is still buffered is written by the stopping thread, unless the writer is stuck
+        if (stopped) {
+            flushSafely();
+        }
+    }
+}
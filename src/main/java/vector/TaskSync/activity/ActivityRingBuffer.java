@@ -0,0 +1,68 @@
+package vector.TaskSync.activity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Producers claim a sequence with a CAS on
+ * the tail and publish into its slot; the consumer takes slots in sequence order until it finds
+ * one that is not published yet. Nobody ever waits: a full buffer rejects the element.
+ */
+final class ActivityRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Next sequence to take; only written by the consumer
+    private volatile long head;
+
+    ActivityRingBuffer(int minimumCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, element);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} elements into {@code sink}. Stops early at a slot that was claimed
+     * but not yet published; it is taken on the next call.
+     */
+    int drainTo(List<? super E> sink, int max) {
+        long next = head;
+        int taken = 0;
+        while (taken < max) {
+            int slot = (int) next & mask;
+            E element = slots.get(slot);
+            if (element == null) {
+                break;
+            }
+            // Cleared before the head moves, so a producer never overwrites an untaken element
+            slots.lazySet(slot, null);
+            sink.add(element);
+            next++;
+            taken++;
+        }
+        head = next;
+        return taken;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
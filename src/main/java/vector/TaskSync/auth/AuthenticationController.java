@@ -7,6 +7,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import vector.TaskSync.config.RateLimitExceededException;
+import vector.TaskSync.config.ServiceOverloadedException;
+import vector.TaskSync.config.TokenRevocationIndex;
 import vector.TaskSync.models.Token;
 import vector.TaskSync.repositories.TokenRepository;
 
@@ -21,6 +24,7 @@ public class AuthenticationController {
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationController.class);
     private final AuthenticationService authenticationService;
     private final TokenRepository tokenRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     @PostMapping("/register")
     public ResponseEntity<AuthenticationResponse> register(@RequestBody RegisterRequest registerRequest) {
@@ -57,6 +61,7 @@ public class AuthenticationController {
                 dbToken.setExpired(true);
                 dbToken.setRevoked(true);
                 tokenRepository.save(dbToken);
+                tokenRevocationIndex.revoke(dbToken);
                 logger.info("Token invalidated for user: {}", dbToken.getUser().getEmail());
             } else {
                 logger.warn("Token not found in database: {}", token);
@@ -73,6 +78,8 @@ public class AuthenticationController {
         try {
             String resetToken = authenticationService.requestPasswordReset(request.getEmail());
             return ResponseEntity.ok("Password reset email sent successfully");
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to process password reset: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Failed to send password reset email: " + e.getMessage());
@@ -85,6 +92,9 @@ public class AuthenticationController {
         try {
             authenticationService.resetPassword(request.getResetToken(), request.getNewPassword());
             return ResponseEntity.ok("Password reset successfully");
+        } catch (ServiceOverloadedException e) {
+            // The hashing pool is saturated; a 503 tells the client to retry instead of changing the request
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to reset password: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Failed to reset password: " + e.getMessage());
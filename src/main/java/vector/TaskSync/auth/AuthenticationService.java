@@ -4,24 +4,28 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.config.AuthRateLimiter;
 import vector.TaskSync.config.JwtService;
+import vector.TaskSync.config.PasswordHashingService;
+import vector.TaskSync.config.TokenRevocationIndex;
+import vector.TaskSync.config.UserCache;
+import vector.TaskSync.config.VerifiedToken;
 import vector.TaskSync.models.Token;
 import vector.TaskSync.models.TokenType;
 import vector.TaskSync.models.User;
 import vector.TaskSync.models.Gender;
 import vector.TaskSync.repositories.TokenRepository;
 import vector.TaskSync.repositories.UserRepository;
+import vector.TaskSync.services.MailOutboxService;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -29,16 +33,16 @@ import java.util.logging.Logger;
 @RequiredArgsConstructor
 public class AuthenticationService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final TokenRepository tokenRepository;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final JavaMailSender mailSender;
+    private final MailOutboxService mailOutboxService;
+    private final UserCache userCache;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final AuthRateLimiter authRateLimiter;
     private static final Logger logger = Logger.getLogger(AuthenticationService.class.getName());
 
-    @Value("${spring.mail.from}")
-    private String fromEmail;
-
     public AuthenticationResponse register(RegisterRequest request) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new IllegalStateException("Email already taken: " + request.getEmail());
@@ -59,15 +63,14 @@ public class AuthenticationService {
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role(request.getRole())
                 .gender(gender)
                 .build();
         var savedUser = userRepository.save(user);
         var token = jwtService.generateToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
-        saveUserToken(savedUser, token);
-        saveUserToken(savedUser, refreshToken);
+        saveUserTokens(savedUser, token, refreshToken);
         logger.info("accesstoken: " + token);
         logger.info("refreshtoken: " + refreshToken);
         return AuthenticationResponse.builder()
@@ -77,13 +80,14 @@ public class AuthenticationService {
     }
 
     public AuthenticationResponse authenticate(AuthenticationRequest authenticationRequest) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(authenticationRequest.getEmail(), authenticationRequest.getPassword()));
+        authRateLimiter.checkEmail(authenticationRequest.getEmail());
+        passwordHashingService.run(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(authenticationRequest.getEmail(), authenticationRequest.getPassword())));
         var user = userRepository.findByEmail(authenticationRequest.getEmail()).orElseThrow(() -> new IllegalStateException("User not found: " + authenticationRequest.getEmail()));
         var token = jwtService.generateToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
         revokeAllUserTokens(user);
-        saveUserToken(user, refreshToken);
-        saveUserToken(user, token);
+        saveUserTokens(user, refreshToken, token);
         return AuthenticationResponse.builder()
                 .accessToken(token)
                 .refreshToken(refreshToken)
@@ -91,7 +95,14 @@ public class AuthenticationService {
     }
 
     private void revokeAllUserTokens(User user) {
-        var validTokens = tokenRepository.findAllValidTokenByUser(user.getId());
+        revokeAllUserTokens(user, null);
+    }
+
+    // keepJti is the refresh token being used, which stays valid for the next refresh
+    private void revokeAllUserTokens(User user, String keepJti) {
+        var validTokens = tokenRepository.findAllValidTokenByUser(user.getId()).stream()
+                .filter(token -> keepJti == null || !keepJti.equals(token.getJti()))
+                .toList();
         if (validTokens.isEmpty()) {
             return;
         }
@@ -100,24 +111,35 @@ public class AuthenticationService {
             token.setExpired(true);
         });
         tokenRepository.saveAll(validTokens);
+        validTokens.forEach(tokenRevocationIndex::revoke);
     }
 
-    private void saveUserToken(User savedUser, String jwtToken) {
-        var token = Token.builder()
-                .token(jwtToken)
+    // All tokens of one login go through a single saveAll so Hibernate sends them as one JDBC batch
+    private void saveUserTokens(User savedUser, String... jwtTokens) {
+        var tokens = Arrays.stream(jwtTokens)
+                .map(jwtToken -> buildUserToken(savedUser, jwtToken))
+                .toList();
+        tokenRepository.saveAll(tokens);
+    }
+
+    private Token buildUserToken(User savedUser, String jwtToken) {
+        var verified = jwtService.verify(jwtToken)
+                .orElseThrow(() -> new IllegalStateException("Generated token could not be verified"));
+        return Token.builder()
+                .tokenHash(Token.hash(jwtToken))
+                .jti(verified.jti())
+                .expiresAt(LocalDateTime.ofInstant(verified.expiration().toInstant(), ZoneId.systemDefault()))
                 .user(savedUser)
                 .tokenType(TokenType.BEARER)
                 .expired(false)
                 .revoked(false)
                 .createdDate(LocalDateTime.now())
                 .build();
-        tokenRepository.save(token);
     }
 
     public void refreshToken(HttpServletRequest request, HttpServletResponse response) throws IOException {
         final String authHeader = request.getHeader("Authorization");
         final String refreshToken;
-        final String email;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing or Invalid Authorization header");
@@ -125,22 +147,29 @@ public class AuthenticationService {
         }
 
         refreshToken = authHeader.substring(7);
-        email = jwtService.extractUsername(refreshToken);
+        // One signature check; the subject and expiry are read from the verified claims
+        VerifiedToken verified = jwtService.verify(refreshToken).orElse(null);
 
-        if (email == null) {
+        if (verified == null || verified.subject() == null) {
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid Refresh Token");
             return;
         }
+        // Logout and every later login revoke the refresh token along with the access token
+        if (tokenRevocationIndex.isRevoked(verified.jti())) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or Expired Refresh Token");
+            return;
+        }
 
+        final String email = verified.subject();
         var user = userRepository.findByEmail(email).orElseThrow(() -> new IllegalStateException("User not found: " + email));
 
-        if (!jwtService.isTokenValid(refreshToken, user)) {
+        if (!jwtService.isTokenValid(verified, user)) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or Expired Refresh Token");
             return;
         }
         var accessToken = jwtService.generateToken(user);
-        revokeAllUserTokens(user);
-        saveUserToken(user, accessToken);
+        revokeAllUserTokens(user, verified.jti());
+        saveUserTokens(user, accessToken);
 
         var authResponse = AuthenticationResponse.builder()
                 .accessToken(accessToken)
@@ -149,12 +178,15 @@ public class AuthenticationService {
         new ObjectMapper().writeValue(response.getOutputStream(), authResponse);
     }
 
+    @Transactional
     public String requestPasswordReset(String email) {
+        authRateLimiter.checkEmail(email);
         var user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalStateException("User not found: " + email));
         String resetToken = UUID.randomUUID().toString();
         var token = Token.builder()
-                .token(resetToken)
+                .tokenHash(Token.hash(resetToken))
+                .expiresAt(LocalDateTime.now().plusHours(1))
                 .user(user)
                 .tokenType(TokenType.PASSWORD_RESET)
                 .expired(false)
@@ -163,22 +195,12 @@ public class AuthenticationService {
                 .build();
         tokenRepository.save(token);
 
-        // Send email with reset link via JavaMailSender
+        // Queued in the same transaction as the token, MailOutboxDispatcher delivers it after commit
         String resetUrl = "http://localhost:8081/reset-password?token=" + resetToken;
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(email);
-        message.setSubject("Password Reset Request");
-        message.setText("Hello,\n\nTo reset your password, click the following link:\n" + resetUrl +
+        mailOutboxService.enqueue(email, "Password Reset Request",
+                "Hello,\n\nTo reset your password, click the following link:\n" + resetUrl +
                 "\n\nThis link will expire in 1 hour.\n\nIf you did not request a password reset, please ignore this email.\n\nBest regards,\nTaskSync Team");
-        message.setFrom(fromEmail);
-
-        try {
-            mailSender.send(message);
-            logger.info("Password reset email sent to: " + email + ", Token: " + resetToken);
-        } catch (MailException e) {
-            logger.severe("Failed to send password reset email to: " + email + ", Error: " + e.getMessage());
-            throw new IllegalStateException("Failed to send password reset email: " + e.getMessage());
-        }
+        logger.info("Password reset email queued for: " + email);
 
         return resetToken;
     }
@@ -190,8 +212,9 @@ public class AuthenticationService {
             throw new IllegalStateException("Invalid or expired reset token");
         }
         var user = token.getUser();
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
         userRepository.save(user);
+        userCache.invalidate(user.getEmail());
         token.setExpired(true);
         token.setRevoked(true);
         tokenRepository.save(token);
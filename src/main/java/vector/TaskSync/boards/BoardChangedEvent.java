@@ -0,0 +1,16 @@
+package vector.TaskSync.boards;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when tasks, comments or attachments on a project's board change. The ids are of the
+ * type's {@link BoardEventType#entity() entity}. Board subscribers are notified after the
+ * transaction commits; the sync change log is written inside it.
+ */
+public record BoardChangedEvent(BoardEventType type, Long projectId, Collection<Long> ids) {
+
+    public static BoardChangedEvent of(BoardEventType type, Long projectId, Long id) {
+        return new BoardChangedEvent(type, projectId, List.of(id));
+    }
+}
@@ -0,0 +1,252 @@
+package vector.TaskSync.boards;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vector.TaskSync.config.ServiceOverloadedException;
+import vector.TaskSync.models.ChangedEntity;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.services.ChangedEntityLoader;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed changes of a project's tasks, comments and attachments to the clients
+ * watching its board, over Server-Sent Events.
+ * <p>
+ * Changes of projects nobody watches are dropped as they arrive. The rest are queued for a single
+ * dispatcher thread, which keeps them in commit order, loads the changed rows in batches from the
+ * primary, serializes each change once and hands the same message to every subscriber of the
+ * project. Each subscriber has a bounded buffer drained by its own virtual thread, so a slow or
+ * stalled client never holds up the dispatcher or the other clients; when its buffer overflows it
+ * is told to reload the board instead.
+ * <p>
+ * Access is checked when the stream is opened. Streams time out, so a client that lost access
+ * stops receiving changes once its stream is up for renewal.
+ */
+@Service
+public class BoardEventHub {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardEventHub.class);
+
+    private final ChangedEntityLoader changedEntityLoader;
+    private final ProjectRepository projectRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate primaryRead;
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+
+    private final Map<Long, Set<BoardSubscription>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<BoardChangedEvent> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    private final ExecutorService dispatcher;
+
+    public BoardEventHub(ChangedEntityLoader changedEntityLoader,
+                         ProjectRepository projectRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${application.boards.buffer-size:256}") int bufferSize,
+                         @Value("${application.boards.heartbeat:20s}") Duration heartbeat,
+                         @Value("${application.boards.timeout:30m}") Duration timeout,
+                         @Value("${application.boards.max-subscribers:10000}") int maxSubscribers) {
+        this.changedEntityLoader = changedEntityLoader;
+        this.projectRepository = projectRepository;
+        this.objectMapper = objectMapper;
+        // Read-write so it stays on the primary: a replica may not have the commit being pushed yet
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "board-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream of the project's board changes. The caller has already been checked for
+     * access to the project.
+     *
+     * @param resync whether the client may have missed changes, typically because it is
+     *               reconnecting, and should start by reloading the board
+     */
+    public SseEmitter subscribe(Long projectId, boolean resync) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Project not found with id: " + projectId);
+        }
+        return subscribe(projectId, new SseEmitter(timeoutMillis), resync);
+    }
+
+    SseEmitter subscribe(Long projectId, SseEmitter emitter, boolean resync) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceOverloadedException("Too many open board streams");
+        }
+        BoardSubscription subscription = new BoardSubscription(projectId, emitter, bufferSize, heartbeatMillis);
+        if (resync) {
+            subscription.offer(subscription.resync(sequence.incrementAndGet()));
+        }
+        // Added inside compute, so a concurrent unsubscribe cannot drop the set between lookup and add
+        subscribers.compute(projectId, (id, projectSubscribers) -> {
+            if (projectSubscribers == null) {
+                projectSubscribers = ConcurrentHashMap.newKeySet();
+            }
+            projectSubscribers.add(subscription);
+            return projectSubscribers;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+        Thread.ofVirtual().name("board-writer-" + projectId).start(() -> {
+            subscription.run();
+            unsubscribe(subscription);
+        });
+        logger.debug("Board stream opened for project {}", projectId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent event) {
+        // Nothing to load or send for boards nobody has open
+        if (!subscribers.containsKey(event.projectId())) {
+            return;
+        }
+        List<Long> ids = List.copyOf(event.ids());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            changes.add(new BoardChangedEvent(event.type(), event.projectId(), ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE))));
+        }
+        if (dispatchQueued.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void unsubscribe(BoardSubscription subscription) {
+        subscription.close();
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscription.projectId(), (id, projectSubscribers) -> {
+            removed[0] = projectSubscribers.remove(subscription);
+            return projectSubscribers.isEmpty() ? null : projectSubscribers;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+            logger.debug("Board stream closed for project {}", subscription.projectId());
+        }
+    }
+
+    private void dispatch() {
+        dispatchQueued.set(false);
+        while (!changes.isEmpty()) {
+            List<BoardChangedEvent> batch = new ArrayList<>();
+            int rows = 0;
+            BoardChangedEvent next;
+            while (rows < BATCH_SIZE && (next = changes.poll()) != null) {
+                batch.add(next);
+                rows += next.ids().size();
+            }
+            try {
+                send(batch);
+            } catch (RuntimeException e) {
+                // The changes are lost, so the boards they touched are reloaded instead
+                logger.warn("Could not push {} board changes: {}", batch.size(), e.getMessage());
+                batch.stream().map(BoardChangedEvent::projectId).distinct().forEach(this::resync);
+            }
+        }
+    }
+
+    private void send(List<BoardChangedEvent> batch) {
+        Map<ChangedEntity, Set<Long>> changedIds = new EnumMap<>(ChangedEntity.class);
+        for (BoardChangedEvent event : batch) {
+            if (!event.type().isDeletion()) {
+                changedIds.computeIfAbsent(event.type().entity(), entity -> new HashSet<>()).addAll(event.ids());
+            }
+        }
+        Map<ChangedEntity, Map<Long, Object>> loaded = changedIds.isEmpty()
+                ? Map.of()
+                : primaryRead.execute(status -> changedEntityLoader.load(changedIds));
+        for (BoardChangedEvent event : batch) {
+            Set<BoardSubscription> projectSubscribers = subscribers.get(event.projectId());
+            if (projectSubscribers == null) {
+                continue;
+            }
+            for (Long id : event.ids()) {
+                Object payload = event.type().isDeletion()
+                        ? Map.of("id", id, "projectId", event.projectId())
+                        : loaded.getOrDefault(event.type().entity(), Map.of()).get(id);
+                // Deleted since: its own deletion event follows
+                if (payload != null) {
+                    publish(projectSubscribers, event.type().eventName(), toJson(payload));
+                }
+            }
+        }
+    }
+
+    private void resync(Long projectId) {
+        Set<BoardSubscription> projectSubscribers = subscribers.get(projectId);
+        if (projectSubscribers != null) {
+            long id = sequence.incrementAndGet();
+            projectSubscribers.forEach(subscription -> subscription.offer(subscription.resync(id)));
+        }
+    }
+
+    private void publish(Set<BoardSubscription> projectSubscribers, String name, String data) {
+        BoardSubscription.Message message = new BoardSubscription.Message(sequence.incrementAndGet(), name, data);
+        for (BoardSubscription subscription : projectSubscribers) {
+            if (!subscription.offer(message)) {
+                logger.debug("Board stream for project {} fell behind, {} events dropped so far",
+                        subscription.projectId(), subscription.dropped());
+            }
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize board event", e);
+        }
+    }
+
+    // Returns once every change queued so far has been handed to the subscribers
+    void awaitDispatcher() throws Exception {
+        dispatcher.submit(() -> {
+        }).get(30, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(projectSubscribers -> projectSubscribers.forEach(subscription -> {
+            subscription.close();
+            subscription.emitter().complete();
+        }));
+    }
+}
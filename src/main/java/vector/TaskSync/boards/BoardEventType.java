@@ -0,0 +1,41 @@
+package vector.TaskSync.boards;
+
+import vector.TaskSync.models.ChangedEntity;
+
+/**
+ * What changed on a project board. The event name is what subscribers see in the stream.
+ */
+public enum BoardEventType {
+    TASK_CREATED("task.created", ChangedEntity.TASK, false),
+    TASK_UPDATED("task.updated", ChangedEntity.TASK, false),
+    TASK_ASSIGNED("task.assigned", ChangedEntity.TASK, false),
+    TASK_DELETED("task.deleted", ChangedEntity.TASK, true),
+    COMMENT_CREATED("comment.created", ChangedEntity.COMMENT, false),
+    COMMENT_UPDATED("comment.updated", ChangedEntity.COMMENT, false),
+    COMMENT_DELETED("comment.deleted", ChangedEntity.COMMENT, true),
+    ATTACHMENT_CREATED("attachment.created", ChangedEntity.ATTACHMENT, false),
+    ATTACHMENT_UPDATED("attachment.updated", ChangedEntity.ATTACHMENT, false),
+    ATTACHMENT_DELETED("attachment.deleted", ChangedEntity.ATTACHMENT, true);
+
+    private final String eventName;
+    private final ChangedEntity entity;
+    private final boolean deletion;
+
+    BoardEventType(String eventName, ChangedEntity entity, boolean deletion) {
+        this.eventName = eventName;
+        this.entity = entity;
+        this.deletion = deletion;
+    }
+
+    public String eventName() {
+        return eventName;
+    }
+
+    public ChangedEntity entity() {
+        return entity;
+    }
+
+    public boolean isDeletion() {
+        return deletion;
+    }
+}
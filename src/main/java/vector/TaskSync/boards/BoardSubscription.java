@@ -0,0 +1,102 @@
+package vector.TaskSync.boards;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One open board stream. Events wait in a bounded buffer and a writer thread of their own sends
+ * them, so a slow client only ever holds up itself. When the buffer is full, everything buffered
+ * is dropped and replaced by a single resync event telling the client to reload the board.
+ * <p>
+ * Only the dispatcher thread offers events; only the writer thread sends.
+ */
+final class BoardSubscription {
+
+    record Message(long id, String name, String data) {
+    }
+
+    static final String RESYNC = "resync";
+
+    private final Long projectId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Message> buffer;
+    private final long heartbeatMillis;
+    private volatile boolean closed;
+    private volatile Thread writer;
+    private long dropped;
+
+    BoardSubscription(Long projectId, SseEmitter emitter, int bufferSize, long heartbeatMillis) {
+        this.projectId = projectId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    Long projectId() {
+        return projectId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * @return false when the buffer overflowed and the client was sent to resync instead
+     */
+    boolean offer(Message message) {
+        if (buffer.offer(message)) {
+            return true;
+        }
+        dropped += buffer.size() + 1;
+        buffer.clear();
+        buffer.offer(resync(message.id()));
+        return false;
+    }
+
+    long dropped() {
+        return dropped;
+    }
+
+    Message resync(long id) {
+        return new Message(id, RESYNC, "{\"projectId\":" + projectId + "}");
+    }
+
+    // Runs on the subscription's own writer thread until the stream ends
+    void run() {
+        writer = Thread.currentThread();
+        try {
+            while (!closed) {
+                Message message = buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    // Keeps proxies from idling the connection out and finds clients that went away
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event().id(Long.toString(message.id())).name(message.name()).data(message.data()));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected or the stream already completed
+            emitter.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed = true;
+        }
+    }
+
+    void close() {
+        closed = true;
+        Thread current = writer;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,64 @@
+package vector.TaskSync.conditional;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import vector.TaskSync.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators for a conditional GET: a strong ETag and the Last-Modified time. A single resource is
+ * identified by its version and modification time, a listing by its {@link ListStamp}, so neither
+ * needs the response body to be serialized and hashed.
+ */
+public record Freshness(String etag, long lastModified) {
+
+    public static Freshness of(Long version, LocalDateTime lastModifiedDate) {
+        long modified = toMillis(lastModifiedDate);
+        return new Freshness("\"" + version + "-" + Long.toString(modified, 36) + "\"", modified);
+    }
+
+    public static Freshness of(ListStamp stamp) {
+        long modified = toMillis(stamp.latestModification());
+        return new Freshness("\"" + listTag(stamp, modified) + "\"", modified);
+    }
+
+    /**
+     * One page of a listing. The stamp covers the whole listing, so the page position and size are
+     * part of the tag to keep two pages from ever sharing one. The cursor is re-encoded from its
+     * decoded form, so only the position matters and not how the client spelled it.
+     */
+    public static Freshness of(ListStamp stamp, Cursor after, int size) {
+        long modified = toMillis(stamp.latestModification());
+        String position = after == null ? "" : "-" + after.encode();
+        return new Freshness("\"" + listTag(stamp, modified) + "-s" + size + position + "\"", modified);
+    }
+
+    /**
+     * Evaluates {@code If-None-Match} and {@code If-Modified-Since} and adds the validators to the
+     * response. Responses are per user and must be revalidated, which also keeps Spring Security
+     * from marking them {@code no-store}.
+     *
+     * @return true if the response status has been set to 304 and no body should be written
+     */
+    public boolean checkNotModified(WebRequest request) {
+        if (request instanceof NativeWebRequest nativeRequest
+                && nativeRequest.getNativeResponse() instanceof HttpServletResponse response) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    private static String listTag(ListStamp stamp, long modified) {
+        return "n" + stamp.count() + "-" + Long.toString(modified, 36);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        // Auditing stamps local time, so that is the zone it is read back in
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,10 @@
+package vector.TaskSync.conditional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest modification time of a listing, read with one aggregate query instead of
+ * the listing itself. An insert or delete changes the count, an update the latest modification.
+ */
+public record ListStamp(long count, LocalDateTime latestModification) {
+}
@@ -2,6 +2,9 @@ package vector.TaskSync.config;
 
 
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -9,24 +12,36 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.client.RestTemplate;
 import vector.TaskSync.audit.AuditConfig;
 import vector.TaskSync.repositories.UserRepository;
 
+import java.util.Map;
+
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationConfig.class);
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    private final UserCache userCache;
     private final UserRepository userRepository;
 
+    @Value("${application.security.password.target-hash-ms:250}")
+    private long targetHashMillis;
+
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+        return username -> userCache.get(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
@@ -35,9 +50,23 @@ public class ApplicationConfig {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(userDetailsService());
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+        daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return daoAuthenticationProvider;
     }
 
+    // Called by DaoAuthenticationProvider after a successful login whose stored hash needs upgrading
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            var user = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            user.setPassword(newPassword);
+            userCache.invalidate(user.getEmail());
+            logger.info("Upgraded password hash for user: {}", user.getEmail());
+            return userRepository.save(user);
+        };
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
@@ -45,9 +74,33 @@ public class ApplicationConfig {
 
 
 
+    /**
+     * New hashes are written as {bcrypt} with a work factor calibrated to this machine. Legacy hashes
+     * without a prefix still match, and both they and lower-cost hashes report upgradeEncoding so
+     * they are rehashed on the next successful login.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(calibrateBcryptStrength());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // Each extra round doubles the cost, so one timed hash at the default strength is enough to extrapolate
+    private int calibrateBcryptStrength() {
+        int strength = MIN_BCRYPT_STRENGTH;
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(strength);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= targetHashMillis) {
+            millis *= 2;
+            strength++;
+        }
+        logger.info("BCrypt strength calibrated to {} (~{} ms per hash, target {} ms)", strength, Math.round(millis), targetHashMillis);
+        return strength;
     }
 
     @Bean
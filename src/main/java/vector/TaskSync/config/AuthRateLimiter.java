@@ -0,0 +1,77 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the /api/auth endpoints: one bucket per client IP, applied by
+ * {@link RateLimitFilter}, and one per email for login and password reset, applied by
+ * the authentication service before any password hashing happens.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter emailLimiter;
+    private final Counter ipAllowed;
+    private final Counter ipRejected;
+    private final Counter emailAllowed;
+    private final Counter emailRejected;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${application.security.rate-limit.stripes:64}") int stripes,
+                           @Value("${application.security.rate-limit.max-keys-per-stripe:1024}") int maxKeysPerStripe,
+                           @Value("${application.security.rate-limit.ip.capacity:20}") long ipCapacity,
+                           @Value("${application.security.rate-limit.ip.per-minute:20}") long ipPerMinute,
+                           @Value("${application.security.rate-limit.email.capacity:5}") long emailCapacity,
+                           @Value("${application.security.rate-limit.email.per-minute:5}") long emailPerMinute) {
+        this.ipLimiter = new TokenBucketRateLimiter(stripes, ipCapacity, ipPerMinute, maxKeysPerStripe);
+        this.emailLimiter = new TokenBucketRateLimiter(stripes, emailCapacity, emailPerMinute, maxKeysPerStripe);
+        this.ipAllowed = counter(meterRegistry, "ip", "allowed");
+        this.ipRejected = counter(meterRegistry, "ip", "rejected");
+        this.emailAllowed = counter(meterRegistry, "email", "allowed");
+        this.emailRejected = counter(meterRegistry, "email", "rejected");
+    }
+
+    /**
+     * @return 0 if allowed, otherwise the number of seconds the client should wait
+     */
+    public long checkIp(String ip) {
+        long waitNanos = ipLimiter.tryAcquire(ip);
+        if (waitNanos == 0) {
+            ipAllowed.increment();
+            return 0;
+        }
+        ipRejected.increment();
+        return toRetryAfterSeconds(waitNanos);
+    }
+
+    public void checkEmail(String email) {
+        if (email == null) {
+            return;
+        }
+        long waitNanos = emailLimiter.tryAcquire(email.toLowerCase());
+        if (waitNanos == 0) {
+            emailAllowed.increment();
+            return;
+        }
+        emailRejected.increment();
+        throw new RateLimitExceededException(toRetryAfterSeconds(waitNanos));
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String scope, String outcome) {
+        return Counter.builder("auth.ratelimit.requests")
+                .description("Requests to /api/auth checked by the rate limiter")
+                .tag("scope", scope)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package vector.TaskSync.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands each transaction's connection back to the pool when the transaction ends. Spring's default
+ * keeps it until the EntityManager closes, and with open-in-view that is the end of the request: an
+ * SSE board stream would hold one for its whole lifetime, and ten of them exhaust the default pool.
+ * Lazy loads outside a transaction still fetch a connection, which is held until the request ends.
+ */
+@Configuration
+public class ConnectionReleaseConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -8,9 +8,11 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -27,6 +29,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationIndex tokenRevocationIndex;
+
+    // When enabled the principal is built from the verified claims and no user lookup happens per request
+    @Value("${application.security.jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
@@ -54,20 +61,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("JWT Token: {}", jwt);
 
         try {
-            String userEmail = jwtService.extractUsername(jwt);
+            VerifiedToken token = jwtService.verify(jwt)
+                    .filter(verified -> !tokenRevocationIndex.isRevoked(verified.jti()))
+                    .orElse(null);
+            String userEmail = token != null ? token.subject() : null;
             logger.debug("Extracted Email: {}", userEmail);
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-                logger.debug("UserDetails: {}", userDetails.getUsername());
+                List<SimpleGrantedAuthority> grantedAuthorities = token.authorities().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+                logger.debug("Authorities: {}", grantedAuthorities);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    List<String> authorities = jwtService.extractAuthorities(jwt);
-                    List<SimpleGrantedAuthority> grantedAuthorities = authorities != null
-                            ? authorities.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList())
-                            : List.of();
-                    logger.debug("Authorities: {}", grantedAuthorities);
+                // Refresh tokens carry no authorities, so they still need the full user
+                UserDetails userDetails = stateless && !grantedAuthorities.isEmpty()
+                        ? User.withUsername(userEmail).password("").authorities(grantedAuthorities).build()
+                        : userDetailsService.loadUserByUsername(userEmail);
+                logger.debug("UserDetails: {}", userDetails.getUsername());
 
+                if (jwtService.isTokenValid(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, grantedAuthorities.isEmpty() ? userDetails.getAuthorities() : grantedAuthorities
                     );
@@ -1,9 +1,11 @@
 package vector.TaskSync.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,6 +31,38 @@ public class JwtService {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    // The key and parser are immutable and thread-safe, so they are built once instead of per call
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signInKey = getSignInKey();
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
+    /**
+     * Parses and verifies the token exactly once. Returns empty if the signature is invalid,
+     * the token is malformed or it has expired.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            List<?> authorities = claims.get("authorities", List.class);
+            return Optional.of(new VerifiedToken(
+                    claims.getSubject(),
+                    claims.getExpiration(),
+                    authorities != null ? authorities.stream().map(Object::toString).collect(Collectors.toList()) : List.of(),
+                    claims.getId()
+            ));
+        } catch (Exception e) {
+            logger.debug("Token verification failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public String extractUsername(String token) {
         try {
             return extractClaim(token, Claims::getSubject);
@@ -45,10 +79,7 @@ public class JwtService {
 
     Claims extractAllClaims(String token) {
         try {
-            return Jwts
-                    .parserBuilder()
-                    .setSigningKey(getSignInKey())
-                    .build()
+            return jwtParser
                     .parseClaimsJws(token)
                     .getBody();
         } catch (Exception e) {
@@ -95,35 +126,23 @@ public class JwtService {
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+                .signWith(signInKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            boolean isValid = username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-            logger.debug("Token validation for user {}: {}", username, isValid);
-            return isValid;
-        } catch (Exception e) {
-            logger.error("Token validation failed: {}", e.getMessage());
-            return false;
-        }
-    }
-
-    private boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            logger.error("Failed to check token expiration: {}", e.getMessage());
-            return true; // Treat as expired if validation fails
-        }
+        return verify(token)
+                .map(verified -> isTokenValid(verified, userDetails))
+                .orElse(false);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        boolean isValid = token.subject() != null && token.subject().equals(userDetails.getUsername()) && !token.isExpired();
+        logger.debug("Token validation for user {}: {}", token.subject(), isValid);
+        return isValid;
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
@@ -14,6 +14,7 @@ import vector.TaskSync.repositories.TokenRepository;
 public class LogoutService implements LogoutHandler {
 
     private final TokenRepository tokenRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     @Override
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
@@ -28,9 +29,18 @@ public class LogoutService implements LogoutHandler {
         var storedToken = tokenRepository.findByToken(jwt)
                 .orElse(null);
         if (storedToken != null) {
+            // The refresh token issued with this access token is revoked as well, otherwise it could mint new ones
+            var validTokens = tokenRepository.findAllValidTokenByUser(storedToken.getUser().getId());
+            validTokens.forEach(token -> {
+                token.setExpired(true);
+                token.setRevoked(true);
+            });
+            tokenRepository.saveAll(validTokens);
+            validTokens.forEach(tokenRevocationIndex::revoke);
             storedToken.setExpired(true);
             storedToken.setRevoked(true);
             tokenRepository.save(storedToken);
+            tokenRevocationIndex.revoke(storedToken);
             SecurityContextHolder.clearContext();
 
         }
@@ -0,0 +1,145 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work (login verification and hashing new passwords) on a dedicated, bounded pool so
+ * a burst of logins cannot take every servlet thread. When the queue is full the caller fails
+ * fast with {@link ServiceOverloadedException} instead of waiting.
+ * <p>
+ * BCrypt never checks for interrupts, so a caller that times out cannot stop a hash that already
+ * started. Work that has not started yet is skipped; work that has keeps its pool thread until it
+ * finishes and is reported by the {@code password.hashing.abandoned} gauge.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Counter timeoutCounter;
+    // Hashes still running for callers that already gave up on them
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${application.security.password.hash-threads:0}") int threads,
+                                  @Value("${application.security.password.hash-queue:64}") int queueCapacity,
+                                  @Value("${application.security.password.hash-timeout:5s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.timeoutCounter = Counter.builder("password.hashing.timeouts")
+                .description("Callers that stopped waiting for a password hash")
+                .register(meterRegistry);
+        meterRegistry.gauge("password.hashing.abandoned", abandoned);
+        logger.info("Password hashing pool started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public <T> T run(Supplier<T> work) {
+        Job<T> job = new Job<>(work);
+        Future<T> future;
+        try {
+            future = executor.submit(job);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Too many concurrent sign-ins, please retry shortly");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeoutCounter.increment();
+            abandon(job, future);
+            throw new ServiceOverloadedException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            abandon(job, future);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            // Surface authentication failures and other runtime errors exactly as the caller would see them inline
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    int abandonedCount() {
+        return abandoned.get();
+    }
+
+    // A queued job is dropped from the queue; a running one is left to finish and counted until it does
+    private void abandon(Job<?> job, Future<?> future) {
+        if (job.state.compareAndSet(Job.QUEUED, Job.ABANDONED)) {
+            executor.remove((Runnable) future);
+        } else {
+            // Counted first so a job finishing right now never takes the gauge below zero
+            abandoned.incrementAndGet();
+            if (!job.state.compareAndSet(Job.RUNNING, Job.ABANDONED)) {
+                abandoned.decrementAndGet();
+            }
+        }
+    }
+
+    private final class Job<T> implements Callable<T> {
+
+        static final int QUEUED = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+        static final int ABANDONED = 3;
+
+        private final Supplier<T> work;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Job(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        public T call() {
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                return null;
+            }
+            try {
+                return work.get();
+            } finally {
+                if (!state.compareAndSet(RUNNING, DONE)) {
+                    abandoned.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,18 @@
+package vector.TaskSync.config;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a client has used up its request budget. Mapped to 429 with a Retry-After header
+ * by {@link GlobalExceptionHandler}.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests, retry in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
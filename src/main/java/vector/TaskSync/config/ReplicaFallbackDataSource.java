@@ -0,0 +1,61 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connections for read-only transactions: from the replica while {@link ReplicaLagMonitor} says it
+ * is usable, otherwise from the primary. Counts where each read went as
+ * {@code datasource.routing.reads{pool=replica|primary}}.
+ */
+class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor monitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    ReplicaFallbackDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.monitor = monitor;
+        this.replicaReads = meterRegistry.counter("datasource.routing.reads", "pool", "replica");
+        this.primaryReads = meterRegistry.counter("datasource.routing.reads", "pool", "primary");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (monitor.isAvailable()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (monitor.isAvailable()) {
+            try {
+                Connection connection = replica.getConnection(username, password);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection(username, password);
+    }
+}
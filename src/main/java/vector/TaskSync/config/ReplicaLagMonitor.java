@@ -0,0 +1,87 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Polls the replica for its replay lag and decides whether read-only transactions may use it. A
+ * replica that is further behind than the allowed lag, or that cannot be reached, is skipped until
+ * a later check finds it healthy again. Publishes {@code datasource.replica.lag} (seconds) and
+ * {@code datasource.replica.available}.
+ */
+public class ReplicaLagMonitor {
+
+    // A replica that has replayed everything it received is current, however old its last replayed commit is
+    public static final String POSTGRES_LAG_QUERY = """
+            select case
+                     when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                     else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end""";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.replica.lag-check-interval:1000}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            resultSet.next();
+            lagSeconds = resultSet.getDouble(1);
+            if (lagSeconds > maxLagSeconds) {
+                update(false, "replica is {}s behind", lagSeconds);
+            } else {
+                update(true, "replica is {}s behind", lagSeconds);
+            }
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            update(false, "replica check failed: {}", e.getMessage());
+        }
+    }
+
+    // Called when a connection attempt fails between checks, so the next reads go straight to the primary
+    void markUnavailable(Exception cause) {
+        update(false, "replica connection failed: {}", cause.getMessage());
+    }
+
+    private void update(boolean nowAvailable, String reason, Object detail) {
+        if (available != nowAvailable) {
+            if (nowAvailable) {
+                logger.info("Routing read-only transactions to the replica again, " + reason, detail);
+            } else {
+                logger.warn("Routing read-only transactions to the primary, " + reason, detail);
+            }
+        }
+        available = nowAvailable;
+    }
+}
@@ -0,0 +1,57 @@
+package vector.TaskSync.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Marks the connection of a read-only transaction read-only up front. {@link HibernateJpaDialect}
+ * only does that when connections are held until the session closes, and the lazy connection
+ * proxy needs the flag before its first statement to pick the replica.
+ * <p>
+ * Read-only transactions that will read from the replica only read the second-level cache, never
+ * write to it. Otherwise a row loaded from a lagging replica right after a write could be cached
+ * and served from every node until it expires. Lookups that should keep filling the cache stay in
+ * read-write transactions, on the primary.
+ */
+class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    private final ReplicaLagMonitor monitor;
+
+    ReplicaReadJpaDialect(ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        session.doWork(connection -> connection.setReadOnly(true));
+        if (!monitor.isAvailable()) {
+            return transactionData;
+        }
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaReadTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaReadTransactionData data) {
+            data.session().setCacheMode(data.previousCacheMode());
+            super.cleanupTransaction(data.delegate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReplicaReadTransactionData(Object delegate, Session session, CacheMode previousCacheMode) {
+    }
+}
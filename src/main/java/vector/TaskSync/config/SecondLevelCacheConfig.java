@@ -0,0 +1,69 @@
+package vector.TaskSync.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.models.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for the read-mostly reference rows most requests resolve again:
+ * teams and their members, and users. Projects are left out: every task write moves their
+ * counters with a bulk update, and Hibernate answers each one by invalidating the whole entity
+ * region. Regions live in a local Caffeine JCache manager that is handed to Hibernate, so sizing
+ * and expiry come from application properties. Hits and misses per region are published as
+ * {@code hibernate.second.level.cache.requests}. Setting
+ * {@code application.cache.second-level.enabled=false} runs without it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.cache.second-level.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    // Collection role of Team.members, which is also the name of its region
+    public static final String TEAM_MEMBERS = Team.class.getName() + ".members";
+
+    static final List<String> REGIONS = List.of(
+            Team.class.getName(), TEAM_MEMBERS, User.class.getName());
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${application.cache.second-level.maximum-size:10000}") long maximumSize,
+                                              @Value("${application.cache.second-level.ttl:10m}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of our own rather than the provider default, which is shared JVM-wide
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("tasksync-hibernate-" + System.identityHashCode(this)), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            // Hibernate only stores immutable disassembled state, so copying entries on every get is wasted work
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        };
+    }
+}
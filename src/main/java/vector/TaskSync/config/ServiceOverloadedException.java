@@ -0,0 +1,12 @@
+package vector.TaskSync.config;
+
+/**
+ * Thrown when a bounded worker pool cannot accept more work. Mapped to 503 with a Retry-After
+ * header by {@link GlobalExceptionHandler}.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,115 @@
+package vector.TaskSync.config;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string (client IP, email, ...). Keys are spread over a fixed
+ * number of lock stripes so unrelated clients do not contend. Buckets are refilled lazily from the
+ * elapsed time when they are touched, so there is no background task, and a known key costs no
+ * allocation per request.
+ */
+public class TokenBucketRateLimiter {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final long capacity;
+    private final long nanosPerToken;
+    private final int maxKeysPerStripe;
+    private final LongSupplier clock;
+
+    public TokenBucketRateLimiter(int stripeCount, long capacity, long tokensPerMinute, int maxKeysPerStripe) {
+        this(stripeCount, capacity, tokensPerMinute, maxKeysPerStripe, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int stripeCount, long capacity, long tokensPerMinute, int maxKeysPerStripe, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / tokensPerMinute;
+        this.maxKeysPerStripe = maxKeysPerStripe;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & mask];
+        synchronized (stripe) {
+            return stripe.tryAcquire(key, clock.getAsLong());
+        }
+    }
+
+    private final class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+
+        long tryAcquire(String key, long now) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeysPerStripe) {
+                    evictIdle(now);
+                }
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            }
+            bucket.refill(now);
+            if (bucket.tokens > 0) {
+                bucket.tokens--;
+                return 0;
+            }
+            return nanosPerToken - (now - bucket.lastRefill);
+        }
+
+        // A full bucket carries no state worth keeping, so it is safe to forget
+        private void evictIdle(long now) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                Bucket bucket = iterator.next();
+                bucket.refill(now);
+                if (bucket.tokens >= capacity) {
+                    iterator.remove();
+                }
+            }
+            if (buckets.size() >= maxKeysPerStripe) {
+                iterator = buckets.values().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private final class Bucket {
+        long tokens;
+        long lastRefill;
+
+        Bucket(long tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        void refill(long now) {
+            long added = (now - lastRefill) / nanosPerToken;
+            if (added <= 0) {
+                return;
+            }
+            if (tokens + added >= capacity) {
+                tokens = capacity;
+                lastRefill = now;
+            } else {
+                tokens += added;
+                lastRefill += added * nanosPerToken;
+            }
+        }
+    }
+}
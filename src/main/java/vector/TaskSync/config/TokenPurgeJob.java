@@ -0,0 +1,55 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vector.TaskSync.repositories.TokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes token rows that can no longer be used. Each chunk is its own short transaction so
+ * the purge never holds locks on a large part of the table.
+ */
+@Component
+public class TokenPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenPurgeJob.class);
+
+    private final TokenRepository tokenRepository;
+    private final int chunkSize;
+    private final Counter purgedCounter;
+    private final AtomicLong tableSize = new AtomicLong();
+
+    public TokenPurgeJob(TokenRepository tokenRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.security.token-purge.chunk-size:1000}") int chunkSize) {
+        this.tokenRepository = tokenRepository;
+        this.chunkSize = chunkSize;
+        this.purgedCounter = Counter.builder("tokens.purged")
+                .description("Expired token rows deleted by the purge job")
+                .register(meterRegistry);
+        meterRegistry.gauge("tokens.table.size", tableSize);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.token-purge.interval:3600000}",
+            initialDelayString = "${application.security.token-purge.interval:3600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = tokenRepository.deleteExpired(now, chunkSize);
+            removed += deleted;
+        } while (deleted == chunkSize);
+
+        purgedCounter.increment(removed);
+        tableSize.set(tokenRepository.count());
+        logger.info("Token purge removed {} rows, {} rows remain", removed, tableSize.get());
+    }
+}
@@ -0,0 +1,153 @@
+package vector.TaskSync.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vector.TaskSync.models.Token;
+import vector.TaskSync.repositories.TokenRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory set of revoked JWT ids that have not expired yet. A Bloom filter sits in front of the
+ * map so the common case (token not revoked) is answered without touching the map at all.
+ * Entries are dropped once the token would have expired anyway, and the filter is rebuilt from
+ * the surviving ids so it never fills up.
+ */
+@Component
+public class TokenRevocationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationIndex.class);
+
+    private final TokenRepository tokenRepository;
+    private final int minimumCapacity;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationIndex(TokenRepository tokenRepository,
+                                @Value("${application.security.revocation.expected-size:10000}") int minimumCapacity) {
+        this.tokenRepository = tokenRepository;
+        this.minimumCapacity = minimumCapacity;
+        this.bloomFilter = new BloomFilter(minimumCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        var tokens = tokenRepository.findAllRevokedUnexpired(LocalDateTime.now());
+        tokens.forEach(this::revoke);
+        logger.info("Loaded {} revoked tokens into the revocation index", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(Token token) {
+        if (token.getJti() != null && token.getExpiresAt() != null) {
+            revoke(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        // Publish to the map first so a concurrent bloom hit always finds the entry
+        revoked.put(jti, expiresAtMillis);
+        bloomFilter.add(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.revocation.prune-interval:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(minimumCapacity, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+        // Ids revoked while rebuilding may have gone to the old filter only
+        revoked.keySet().forEach(rebuilt::add);
+
+        if (before != revoked.size()) {
+            logger.debug("Pruned {} expired ids from the revocation index, {} remain", before - revoked.size(), revoked.size());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Fixed-size Bloom filter over strings, about 1% false positives at its expected capacity.
+     * Bits are set with CAS so adds are safe from any thread.
+     */
+    static final class BloomFilter {
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final int mask;
+
+        BloomFilter(int expectedInsertions) {
+            // ~10 bits per entry, rounded up to a power of two so the index is a mask
+            int bits = Integer.highestOneBit(Math.max(1024, expectedInsertions * 10) - 1) << 1;
+            this.words = new AtomicLongArray(bits >>> 6);
+            this.mask = bits - 1;
+        }
+
+        void add(String key) {
+            long hash = mix(key.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                long bitMask = 1L << bit;
+                int index = bit >>> 6;
+                long word;
+                do {
+                    word = words.get(index);
+                    if ((word & bitMask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(index, word, word | bitMask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = mix(key.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // MurmurHash3 fmix64, spreads the 32-bit String hash over 64 bits for double hashing
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package vector.TaskSync.config;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A JWT whose signature and expiry have already been checked by {@link JwtService#verify(String)}.
+ * Everything the request filter needs is read once from the claims and kept here, so the token
+ * never has to be parsed a second time during the same request.
+ */
+public record VerifiedToken(String subject, Date expiration, List<String> authorities, String jti) {
+
+    public VerifiedToken {
+        authorities = authorities != null ? List.copyOf(authorities) : List.of();
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -10,12 +10,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import vector.TaskSync.models.Attachment;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.CursorResponses;
+import vector.TaskSync.pagination.PageLimits;
 import vector.TaskSync.services.AttachmentService;
 import vector.TaskSync.services.FileStorageService;
+import vector.TaskSync.services.AuthorizationContext;
 import vector.TaskSync.services.TeamAccessService;
+import vector.TaskSync.specifications.AttachmentSpecifications;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/attachments")
@@ -28,6 +32,10 @@ public class AttachmentController {
 
     private final FileStorageService fileStorageService;
 
+    private final PageLimits pageLimits;
+
+    private final AuthorizationContext authorizationContext;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
     public ResponseEntity<Attachment> createAttachment(@RequestBody Attachment attachment) {
@@ -37,14 +45,14 @@ public class AttachmentController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<List<Attachment>> getAllAttachments() {
-        return ResponseEntity.ok(attachmentService.getAllAttachments().stream()
-                .filter(attachment -> attachment.getTask().getTeam() == null || teamAccessService.isUserInTeam(attachment.getTask().getTeam().getId()))
-                .collect(Collectors.toList()));
+    public ResponseEntity<List<Attachment>> getAllAttachments(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        return CursorResponses.ok(attachmentService.getAllAttachments(
+                AttachmentSpecifications.visibleTo(authorizationContext), cursor, pageLimits.resolve(size)));
 
     }
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole(@teamAccessService.isUserInTeam(#id))")
+    @PreAuthorize("hasRole('TEAM_LEAD') || @teamAccessService.canAccessAttachment(#id)")
     public ResponseEntity<Attachment> getAttachmentById(@PathVariable("id") Long id) {
         return attachmentService.getAttachmentById(id)
                 .map(attachment -> new ResponseEntity<>(attachment, HttpStatus.OK))
@@ -0,0 +1,49 @@
+package vector.TaskSync.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vector.TaskSync.boards.BoardEventHub;
+import vector.TaskSync.config.ServiceOverloadedException;
+import vector.TaskSync.services.AuthorizationContext;
+import vector.TaskSync.services.TeamAccessService;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class BoardController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardController.class);
+    private final BoardEventHub boardEventHub;
+    private final TeamAccessService teamAccessService;
+    private final AuthorizationContext authorizationContext;
+
+    // Live changes of the project's tasks and comments; a "resync" event means reload the board
+    @GetMapping(value = "/projects/{projectId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
+    public ResponseEntity<SseEmitter> streamBoard(@PathVariable Long projectId,
+                                                  @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String email = authorizationContext.email();
+        // Same membership rule as the project's task listing
+        if (!authorizationContext.isTeamLead() && !teamAccessService.isUserInProjectTeam(projectId)) {
+            logger.warn("Project ID {} not found or user {} not in team", projectId, email);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        logger.debug("Opening board stream for project ID {} for user: {}", projectId, email);
+        try {
+            // A reconnecting client may have missed changes in between, which are not replayed
+            return new ResponseEntity<>(boardEventHub.subscribe(projectId, lastEventId != null), HttpStatus.OK);
+        } catch (ServiceOverloadedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("Failed to open board stream for project ID {}: {}", projectId, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
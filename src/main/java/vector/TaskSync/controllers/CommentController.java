@@ -14,11 +14,15 @@ import org.springframework.web.bind.annotation.*;
 import vector.TaskSync.models.Comment;
 import vector.TaskSync.models.CommentDTO;
 import vector.TaskSync.models.UserDTO;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.CursorResponses;
+import vector.TaskSync.pagination.PageLimits;
+import vector.TaskSync.services.AuthorizationContext;
 import vector.TaskSync.services.CommentService;
 import vector.TaskSync.services.TeamAccessService;
+import vector.TaskSync.specifications.CommentSpecifications;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -28,6 +32,8 @@ public class CommentController {
     private static final Logger logger = LoggerFactory.getLogger(CommentController.class);
     private final CommentService commentService;
     private final TeamAccessService teamAccessService;
+    private final AuthorizationContext authorizationContext;
+    private final PageLimits pageLimits;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
@@ -41,18 +47,15 @@ public class CommentController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<List<Comment>> getAllComments() {
+    public ResponseEntity<List<Comment>> getAllComments(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching all comments for user: {}", email);
-        List<Comment> comments = commentService.getAllComments().stream()
-                .filter(comment -> comment.getTask() != null && comment.getTask().getProject() != null &&
-                        comment.getTask().getProject().getTeam() != null &&
-                        (authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD")) ||
-                                comment.getTask().getProject().getTeam().getMembers().stream().anyMatch(member -> member.getEmail().equals(email))))
-                .collect(Collectors.toList());
-        logger.debug("Returning {} comments for user: {}", comments.size(), email);
-        return new ResponseEntity<>(comments, HttpStatus.OK);
+        CursorPage<Comment> comments = commentService.getAllComments(
+                CommentSpecifications.visibleTo(authorizationContext), cursor, pageLimits.resolve(size));
+        logger.debug("Returning {} comments for user: {}", comments.items().size(), email);
+        return CursorResponses.ok(comments);
     }
 
     @GetMapping("/{id}")
@@ -62,10 +65,7 @@ public class CommentController {
         String email = authentication.getName();
         logger.debug("Fetching comment ID {} for user: {}", id, email);
         return commentService.getCommentById(id)
-                .filter(comment -> comment.getTask() != null && comment.getTask().getProject() != null &&
-                        comment.getTask().getProject().getTeam() != null &&
-                        (authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD")) ||
-                                comment.getTask().getProject().getTeam().getMembers().stream().anyMatch(member -> member.getEmail().equals(email))))
+                .filter(this::canSee)
                 .map(comment -> {
                     logger.debug("Comment ID {} found for user: {}", id, email);
                     return new ResponseEntity<>(comment, HttpStatus.OK);
@@ -125,16 +125,17 @@ public class CommentController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching comments for task ID {} for user: {}", taskId, email);
-        List<Comment> comments = commentService.getCommentsByTask(taskId).stream()
-                .filter(comment -> comment.getTask() != null && comment.getTask().getProject() != null &&
-                        comment.getTask().getProject().getTeam() != null &&
-                        (authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD")) ||
-                                comment.getTask().getProject().getTeam().getMembers().stream().anyMatch(member -> member.getEmail().equals(email))))
-                .collect(Collectors.toList());
+        List<Comment> comments = commentService.getCommentsByTask(taskId, CommentSpecifications.visibleTo(authorizationContext));
         logger.debug("Returning {} comments for task ID {} for user: {}", comments.size(), taskId, email);
         return new ResponseEntity<>(comments, HttpStatus.OK);
     }
 
+    private boolean canSee(Comment comment) {
+        return comment.getTask() != null && comment.getTask().getProject() != null &&
+                comment.getTask().getProject().getTeam() != null &&
+                authorizationContext.canSeeTeam(comment.getTask().getProject().getTeam().getId());
+    }
+
     private Comment mapToComment(CommentDTO commentDTO) {
         Comment comment = new Comment();
         comment.setContent(commentDTO.getContent());
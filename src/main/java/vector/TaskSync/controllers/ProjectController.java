@@ -4,20 +4,29 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vector.TaskSync.conditional.Freshness;
+import vector.TaskSync.export.ExportFormat;
+import vector.TaskSync.export.ProjectExportService;
 import vector.TaskSync.models.Project;
 import vector.TaskSync.models.User;
 import vector.TaskSync.models.UserDTO;
+import vector.TaskSync.services.AuthorizationContext;
 import vector.TaskSync.services.ProjectService;
+import vector.TaskSync.services.TeamAccessService;
 import vector.TaskSync.services.UserService;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -26,6 +35,9 @@ public class ProjectController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectController.class);
     private final ProjectService projectService;
+    private final AuthorizationContext authorizationContext;
+    private final TeamAccessService teamAccessService;
+    private final ProjectExportService projectExportService;
 
     @PostMapping
     @PreAuthorize("hasRole('TEAM_LEAD')")
@@ -39,25 +51,25 @@ public class ProjectController {
 
     @GetMapping("/teams/{teamId}/projects")
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<List<Project>> getProjectsByTeam(@PathVariable Long teamId) {
+    public ResponseEntity<List<Project>> getProjectsByTeam(@PathVariable Long teamId, WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching projects for team ID {} for user: {}", teamId, email);
-        List<Project> projects = projectService.getProjectsByTeam(teamId);
-        // Filter projects to ensure the user is in the team (for USER role)
-        if (!authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD"))) {
-            projects = projects.stream()
-                    .filter(project -> project.getTeam() != null &&
-                            project.getTeam().getMembers().stream().anyMatch(member -> member.getEmail().equals(email)))
-                    .collect(Collectors.toList());
+        // Every project listed belongs to this team, so membership is checked once (for USER role)
+        if (!authorizationContext.canSeeTeam(teamId)) {
+            return new ResponseEntity<>(List.of(), HttpStatus.OK);
+        }
+        if (Freshness.of(projectService.getProjectsByTeamStamp(teamId)).checkNotModified(request)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
         }
+        List<Project> projects = projectService.getProjectsByTeam(teamId);
         logger.debug("Returning {} projects for team ID {} for user: {}", projects.size(), teamId, email);
         return new ResponseEntity<>(projects, HttpStatus.OK);
     }
 
     @GetMapping("/{projectId}")
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long projectId) {
+    public ResponseEntity<Project> getProjectById(@PathVariable Long projectId, WebRequest request) {
 //        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 //        String email = authentication.getName();
 //        logger.debug("Fetching project ID {} for user: {}", projectId, email);
@@ -68,6 +80,9 @@ public class ProjectController {
 //        }
 //        logger.debug("Project ID {} found for user: {}", projectId, email);
         Project project = projectService.getProjectById(projectId);
+        if (Freshness.of(project.getVersion(), project.getLastModifiedDate()).checkNotModified(request)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
         return new ResponseEntity<>(project, HttpStatus.OK);
     }
 
@@ -77,4 +92,37 @@ public class ProjectController {
         List<UserDTO> members = projectService.getProjectMembers(projectId);
         return ResponseEntity.ok(members);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{projectId}/export")
+    @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
+    public ResponseEntity<StreamingResponseBody> exportProject(@PathVariable Long projectId,
+                                                               @RequestParam(defaultValue = "ndjson") String format,
+                                                               @RequestParam(required = false) Set<String> include) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        Set<String> sections = include == null ? Set.of() : include;
+        for (String section : sections) {
+            if (!section.equals("comments") && !section.equals("attachments")) {
+                throw new IllegalStateException("Unknown export section: " + section);
+            }
+        }
+        if (!authorizationContext.isTeamLead() && !teamAccessService.isUserInProjectTeam(projectId)) {
+            logger.warn("User {} is not allowed to export project ID {}", authorizationContext.email(), projectId);
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        StreamingResponseBody body;
+        try {
+            body = projectExportService.export(projectId, exportFormat,
+                    sections.contains("comments"), sections.contains("attachments"));
+        } catch (RuntimeException e) {
+            logger.error("Failed to export project ID {}: {}", projectId, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("project-" + projectId + "." + exportFormat.extension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
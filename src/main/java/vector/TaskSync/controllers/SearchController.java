@@ -0,0 +1,40 @@
+package vector.TaskSync.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import vector.TaskSync.models.TaskDTO;
+import vector.TaskSync.pagination.PageLimits;
+import vector.TaskSync.search.TaskSearchService;
+import vector.TaskSync.services.AuthorizationContext;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+    private final TaskSearchService taskSearchService;
+    private final AuthorizationContext authorizationContext;
+    private final PageLimits pageLimits;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
+    public ResponseEntity<List<TaskDTO>> search(@RequestParam("q") String query,
+                                                @RequestParam(required = false) Integer size) {
+        String email = authorizationContext.email();
+        logger.debug("Searching tasks for '{}' for user: {}", query, email);
+        List<TaskDTO> tasks = taskSearchService.search(query, authorizationContext.visibleTeams(), pageLimits.resolve(size));
+        logger.debug("Returning {} tasks matching '{}' for user: {}", tasks.size(), query, email);
+        return new ResponseEntity<>(tasks, HttpStatus.OK);
+    }
+}
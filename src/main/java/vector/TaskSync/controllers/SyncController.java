@@ -0,0 +1,36 @@
+package vector.TaskSync.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import vector.TaskSync.models.SyncResponse;
+import vector.TaskSync.services.AuthorizationContext;
+import vector.TaskSync.sync.SyncService;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+    private final SyncService syncService;
+    private final AuthorizationContext authorizationContext;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) String since) {
+        String email = authorizationContext.email();
+        logger.debug("Syncing changes since {} for user: {}", since, email);
+        SyncResponse changes = syncService.changesSince(since, authorizationContext.visibleTeams());
+        logger.debug("Returning {} tasks, {} comments and {} attachments changed for user: {}",
+                changes.getTasks().size(), changes.getComments().size(), changes.getAttachments().size(), email);
+        return new ResponseEntity<>(changes, HttpStatus.OK);
+    }
+}
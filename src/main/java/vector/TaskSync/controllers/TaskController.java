@@ -4,19 +4,36 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import vector.TaskSync.conditional.Freshness;
+import vector.TaskSync.models.Activity;
+import vector.TaskSync.models.BulkTaskItem;
+import vector.TaskSync.models.BulkTaskResponse;
 import vector.TaskSync.models.Task;
 import vector.TaskSync.models.TaskDTO;
+import vector.TaskSync.models.TaskFilter;
+import vector.TaskSync.models.TaskStatus;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.CursorResponses;
+import vector.TaskSync.pagination.PageLimits;
+import vector.TaskSync.services.AuthorizationContext;
+import vector.TaskSync.services.BulkTaskService;
+import vector.TaskSync.services.TaskQueryService;
 import vector.TaskSync.services.TaskService;
 import vector.TaskSync.services.TeamAccessService;
+import vector.TaskSync.specifications.TaskSpecifications;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -25,7 +42,11 @@ public class TaskController {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
     private final TaskService taskService;
+    private final BulkTaskService bulkTaskService;
+    private final TaskQueryService taskQueryService;
     private final TeamAccessService teamAccessService;
+    private final AuthorizationContext authorizationContext;
+    private final PageLimits pageLimits;
 
     @PostMapping("/projects/{projectId}/tasks")
     @PreAuthorize("hasRole('TEAM_LEAD')")
@@ -35,27 +56,61 @@ public class TaskController {
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
 
+    @PostMapping("/projects/{projectId}/tasks/bulk")
+    @PreAuthorize("hasRole('TEAM_LEAD')")
+    public ResponseEntity<BulkTaskResponse> createTasks(@PathVariable Long projectId, @RequestBody List<BulkTaskItem> tasks) {
+        logger.debug("Creating {} tasks for project ID: {}", tasks.size(), projectId);
+        BulkTaskResponse response = bulkTaskService.createTasks(projectId, tasks);
+        // 207 tells the client to look at the per-item results for the ones that were rejected
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+
     @GetMapping("/projects/{projectId}/tasks")
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<List<TaskDTO>> getTasksByProject(@PathVariable Long projectId) {
+    public ResponseEntity<List<TaskDTO>> getTasksByProject(@PathVariable Long projectId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size,
+                                                           WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching tasks for project ID {} for user: {}", projectId, email);
-        List<TaskDTO> tasks = taskService.getTasksByProject(projectId);
-        // Filter tasks to ensure the user is in the project’s team (for USER role)
-        if (!authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD"))) {
-            tasks = tasks.stream()
-                    .filter(task -> task.getProject() != null && task.getProject().getTeam() != null &&
-                            task.getProject().getTeam().getMembers().stream().anyMatch(member -> member.getEmail().equals(email)))
-                    .collect(Collectors.toList());
+        // Every task belongs to the same project, so membership is checked once instead of per task
+        if (!authorizationContext.isTeamLead() && !teamAccessService.isUserInProjectTeam(projectId)) {
+            return CursorResponses.ok(new CursorPage<>(List.of(), null));
         }
-        logger.debug("Returning {} tasks for project ID {} for user: {}", tasks.size(), projectId, email);
-        return new ResponseEntity<>(tasks, HttpStatus.OK);
+        int pageSize = pageLimits.resolve(size);
+        if (Freshness.of(taskService.getTasksByProjectStamp(projectId), Cursor.decode(cursor), pageSize).checkNotModified(request)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        CursorPage<TaskDTO> tasks = taskService.getTasksByProject(projectId, cursor, pageSize);
+        logger.debug("Returning {} tasks for project ID {} for user: {}", tasks.items().size(), projectId, email);
+        return CursorResponses.ok(tasks);
+    }
+
+    @GetMapping("/tasks/search")
+    @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
+    public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam(required = false) List<TaskStatus> status,
+                                                     @RequestParam(required = false) Long assigneeId,
+                                                     @RequestParam(required = false) Long teamId,
+                                                     @RequestParam(required = false) Long projectId,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+                                                     @RequestParam(required = false) List<String> sort,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        String email = authorizationContext.email();
+        TaskFilter filter = new TaskFilter(status, assigneeId, teamId, projectId, dueFrom, dueTo);
+        logger.debug("Querying tasks matching {} sorted by {} for user: {}", filter, sort, email);
+        CursorPage<TaskDTO> tasks = taskQueryService.findTasks(filter, TaskSpecifications.visibleTo(authorizationContext),
+                sort, cursor, pageLimits.resolve(size));
+        logger.debug("Returning {} tasks for user: {}", tasks.items().size(), email);
+        return CursorResponses.ok(tasks);
     }
 
     @GetMapping("/tasks/{id}")
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id, WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching task ID {} for user: {}", id, email);
@@ -64,6 +119,9 @@ public class TaskController {
 //                        task.getProject().getTeam().getMembers().stream().anyMatch(member -> member.getEmail().equals(email)))
                 .map(task -> {
                     logger.debug("Task ID {} found for user: {}", id, email);
+                    if (Freshness.of(task.getVersion(), task.getLastModifiedDate()).checkNotModified(request)) {
+                        return new ResponseEntity<TaskDTO>(HttpStatus.NOT_MODIFIED);
+                    }
                     return new ResponseEntity<>(task, HttpStatus.OK);
                 })
                 .orElseGet(() -> {
@@ -77,6 +135,20 @@ public class TaskController {
                 });
     }
 
+    @GetMapping("/tasks/{id}/activity")
+    @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
+    public ResponseEntity<List<Activity>> getTaskActivity(@PathVariable Long id,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        String email = authorizationContext.email();
+        logger.debug("Fetching activity of task ID {} for user: {}", id, email);
+        if (!authorizationContext.isTeamLead() && !teamAccessService.isUserInProject(id)) {
+            logger.warn("Task ID {} not found or user {} not in team", id, email);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return CursorResponses.ok(taskService.getTaskActivity(id, cursor, pageLimits.resolve(size)));
+    }
+
     @PutMapping("/tasks/{id}")
     @PreAuthorize("hasRole('TEAM_LEAD')")
     public ResponseEntity<Task> updateTask(@PathVariable Long id, @Valid @RequestBody Task task) {
@@ -84,6 +156,8 @@ public class TaskController {
         try {
             Task updatedTask = taskService.updateTask(id, task);
             return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Failed to update task ID {}: {}", id, e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -110,6 +184,8 @@ public class TaskController {
         try {
             Task assignedTask = taskService.assignTask(taskId, userId);
             return new ResponseEntity<>(assignedTask, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Failed to assign task ID {} to user ID {}: {}", taskId, userId, e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -3,17 +3,26 @@ package vector.TaskSync.controllers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import vector.TaskSync.conditional.Freshness;
 import vector.TaskSync.models.Team;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.CursorResponses;
+import vector.TaskSync.pagination.PageLimits;
+import vector.TaskSync.services.AuthorizationContext;
 import vector.TaskSync.services.TeamService;
+import vector.TaskSync.specifications.TeamSpecifications;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -22,6 +31,10 @@ public class TeamController {
     private static final Logger logger = LoggerFactory.getLogger(TeamController.class);
     @Autowired
     private TeamService teamService;
+    @Autowired
+    private PageLimits pageLimits;
+    @Autowired
+    private AuthorizationContext authorizationContext;
 
     @PostMapping
     @PreAuthorize("hasRole('TEAM_LEAD')")
@@ -33,32 +46,36 @@ public class TeamController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<List<Team>> getAllTeams() {
+    public ResponseEntity<List<Team>> getAllTeams(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching teams for user: {}", email);
-        List<Team> teams = teamService.findAllTeams();
-        // Filter teams to include only those the user is a member of (for USER role)
-        if (!authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD"))) {
-            teams = teams.stream()
-                    .filter(team -> team.getMembers().stream().anyMatch(member -> member.getEmail().equals(email)))
-                    .collect(Collectors.toList());
+        // Only teams the user is a member of are read (for USER role)
+        Specification<Team> visibility = TeamSpecifications.visibleTo(authorizationContext);
+        int pageSize = pageLimits.resolve(size);
+        if (Freshness.of(teamService.findAllTeamsStamp(visibility), Cursor.decode(cursor), pageSize).checkNotModified(request)) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
         }
-        logger.debug("Returning {} teams for user: {}", teams.size(), email);
-        return new ResponseEntity<>(teams, HttpStatus.OK);
+        CursorPage<Team> teams = teamService.findAllTeams(visibility, cursor, pageSize);
+        logger.debug("Returning {} teams for user: {}", teams.items().size(), email);
+        return CursorResponses.ok(teams);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'TEAM_LEAD')")
-    public ResponseEntity<Team> getTeamById(@PathVariable Long id) {
+    public ResponseEntity<Team> getTeamById(@PathVariable Long id, WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         logger.debug("Fetching team ID {} for user: {}", id, email);
         return teamService.findTeamById(id)
-                .filter(team -> authentication.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD")) ||
-                        team.getMembers().stream().anyMatch(member -> member.getEmail().equals(email)))
+                .filter(team -> authorizationContext.canSeeTeam(team.getId()))
                 .map(team -> {
                     logger.debug("Team ID {} found for user: {}", id, email);
+                    if (Freshness.of(team.getVersion(), team.getLastModifiedDate()).checkNotModified(request)) {
+                        return new ResponseEntity<Team>(HttpStatus.NOT_MODIFIED);
+                    }
                     return new ResponseEntity<>(team, HttpStatus.OK);
                 })
                 .orElseGet(() -> {
@@ -74,6 +91,8 @@ public class TeamController {
         try {
             Team updatedTeam = teamService.updateTeam(id, team);
             return new ResponseEntity<>(updatedTeam, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Failed to update team ID {}: {}", id, e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -100,6 +119,8 @@ public class TeamController {
         try {
             Team updatedTeam = teamService.addMember(teamId, userId);
             return new ResponseEntity<>(updatedTeam, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Failed to add user ID {} to team ID {}: {}", userId, teamId, e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -113,6 +134,8 @@ public class TeamController {
         try {
             Team updatedTeam = teamService.removeMember(teamId, userId);
             return new ResponseEntity<>(updatedTeam, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Failed to remove user ID {} from team ID {}: {}", userId, teamId, e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
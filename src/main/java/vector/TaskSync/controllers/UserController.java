@@ -9,9 +9,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import vector.TaskSync.config.ServiceOverloadedException;
 import vector.TaskSync.models.ChangePasswordRequest;
 import vector.TaskSync.models.User;
 import vector.TaskSync.models.UserDTO;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.CursorResponses;
+import vector.TaskSync.pagination.PageLimits;
 import vector.TaskSync.services.UserService;
 
 import java.security.Principal;
@@ -23,6 +27,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final PageLimits pageLimits;
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @PostMapping
@@ -33,10 +38,11 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        logger.debug("Fetching all users");
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
+        logger.debug("Fetching users after cursor {}", cursor);
+        CursorPage<User> users = userService.getAllUsers(cursor, pageLimits.resolve(size));
+        return CursorResponses.ok(users);
     }
 
     @GetMapping("/{id}")
@@ -80,6 +86,8 @@ public class UserController {
         try {
             userService.changePassword(changePasswordRequest, connectedUser);
             return ResponseEntity.ok().build();
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Failed to change password for user {}: {}", connectedUser.getName(), e.getMessage());
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -0,0 +1,12 @@
+package vector.TaskSync.export;
+
+import java.time.LocalDateTime;
+
+// Metadata only; the file itself stays in storage
+public record AttachmentExportRow(Long id,
+                                  Long taskId,
+                                  String fileName,
+                                  String fileUrl,
+                                  String createdBy,
+                                  LocalDateTime createdDate) implements ExportRow {
+}
@@ -0,0 +1,10 @@
+package vector.TaskSync.export;
+
+import java.time.LocalDateTime;
+
+public record CommentExportRow(Long id,
+                               Long taskId,
+                               String content,
+                               String authorEmail,
+                               LocalDateTime createdDate) implements ExportRow {
+}
@@ -0,0 +1,73 @@
+package vector.TaskSync.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV. Tasks, comments and attachments share one header; the {@code type} column says
+ * which columns of a row are filled in.
+ */
+class CsvExportWriter implements ExportWriter {
+
+    static final String HEADER = "type,id,task_id,title,description,status,due_date,assignee_id,assignee_email,"
+            + "content,author_email,file_name,file_url,created_by,created_date,last_modified_date";
+
+    private final Writer out;
+
+    CsvExportWriter(OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.out.write(HEADER);
+        this.out.write("\r\n");
+    }
+
+    @Override
+    public void write(ExportRow row) throws IOException {
+        switch (row) {
+            case TaskExportRow task -> line("task", task.id(), null, task.title(), task.description(), task.status(),
+                    task.dueDate(), task.assigneeId(), task.assigneeEmail(), null, null, null, null,
+                    task.createdBy(), task.createdDate(), task.lastModifiedDate());
+            case CommentExportRow comment -> line("comment", comment.id(), comment.taskId(), null, null, null,
+                    null, null, null, comment.content(), comment.authorEmail(), null, null,
+                    null, comment.createdDate(), null);
+            case AttachmentExportRow attachment -> line("attachment", attachment.id(), attachment.taskId(), null, null, null,
+                    null, null, null, null, null, attachment.fileName(), attachment.fileUrl(),
+                    attachment.createdBy(), attachment.createdDate(), null);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void line(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                field(values[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void field(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
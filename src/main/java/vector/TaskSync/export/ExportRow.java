@@ -0,0 +1,20 @@
+package vector.TaskSync.export;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * One line of an export. Rows are flat projections read straight from the database, so nothing
+ * they carry is managed by the persistence context.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = TaskExportRow.class, name = "task"),
+        @JsonSubTypes.Type(value = CommentExportRow.class, name = "comment"),
+        @JsonSubTypes.Type(value = AttachmentExportRow.class, name = "attachment")
+})
+public sealed interface ExportRow permits TaskExportRow, CommentExportRow, AttachmentExportRow {
+
+    // JDBC fetch size for the export cursors; PostgreSQL only honours it inside a transaction
+    String FETCH_SIZE = "500";
+}
@@ -0,0 +1,10 @@
+package vector.TaskSync.export;
+
+import java.io.IOException;
+
+interface ExportWriter {
+
+    void write(ExportRow row) throws IOException;
+
+    void finish() throws IOException;
+}
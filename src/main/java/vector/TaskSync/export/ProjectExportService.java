@@ -0,0 +1,102 @@
+package vector.TaskSync.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vector.TaskSync.repositories.AttachmentRepository;
+import vector.TaskSync.repositories.CommentRepository;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TaskRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a project's tasks, and optionally their comments and attachment metadata, straight from
+ * a database cursor to the response. Rows are read with a JDBC fetch size inside one read-only
+ * transaction and written as they arrive, so memory use does not depend on the size of the project.
+ */
+@Service
+public class ProjectExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectExportService.class);
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProjectExportService(ProjectRepository projectRepository,
+                                TaskRepository taskRepository,
+                                CommentRepository commentRepository,
+                                AttachmentRepository attachmentRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Checks the project exists and returns a body that performs the export when the response is
+     * written. The body runs on an async request thread, so callers authorize before calling this.
+     */
+    public StreamingResponseBody export(Long projectId, ExportFormat format, boolean comments, boolean attachments) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Project not found with id: " + projectId);
+        }
+        return out -> write(projectId, format, comments, attachments, out);
+    }
+
+    void write(Long projectId, ExportFormat format, boolean comments, boolean attachments, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        ExportWriter writer = format == ExportFormat.CSV
+                ? new CsvExportWriter(out)
+                : new NdjsonExportWriter(objectMapper, out);
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long count = copy(taskRepository.streamExportRowsByProjectId(projectId), writer);
+                if (comments) {
+                    count += copy(commentRepository.streamExportRowsByProjectId(projectId), writer);
+                }
+                if (attachments) {
+                    count += copy(attachmentRepository.streamExportRowsByProjectId(projectId), writer);
+                }
+                return count;
+            });
+            writer.finish();
+            logger.debug("Exported {} rows of project {} as {} in {} ms", rows, projectId, format,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+    }
+
+    private static long copy(Stream<? extends ExportRow> rows, ExportWriter writer) {
+        long count = 0;
+        try (rows) {
+            Iterator<? extends ExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
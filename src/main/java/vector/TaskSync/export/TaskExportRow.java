@@ -0,0 +1,17 @@
+package vector.TaskSync.export;
+
+import vector.TaskSync.models.TaskStatus;
+
+import java.time.LocalDateTime;
+
+public record TaskExportRow(Long id,
+                            String title,
+                            String description,
+                            TaskStatus status,
+                            LocalDateTime dueDate,
+                            Long assigneeId,
+                            String assigneeEmail,
+                            String createdBy,
+                            LocalDateTime createdDate,
+                            LocalDateTime lastModifiedDate) implements ExportRow {
+}
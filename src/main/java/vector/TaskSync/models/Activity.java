@@ -0,0 +1,40 @@
+package vector.TaskSync.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One mutation of a task or team: who did it, when, and the value before and after where there is
+ * one. Rows are only ever inserted.
+ */
+@Entity
+@Table(name = "activity")
+@Data
+@NoArgsConstructor
+public class Activity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activity_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "activity_type", nullable = false, length = 30)
+    private ActivityType type;
+
+    private Long taskId;
+
+    private Long teamId;
+
+    private String actor;
+
+    private String fromValue;
+
+    private String toValue;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,17 @@
+package vector.TaskSync.models;
+
+public enum ActivityType {
+    TASK_CREATED,
+    TASK_RENAMED,
+    TASK_STATUS_CHANGED,
+    TASK_ASSIGNED,
+    TASK_DELETED,
+    COMMENT_ADDED,
+    COMMENT_EDITED,
+    COMMENT_DELETED,
+    TEAM_CREATED,
+    TEAM_RENAMED,
+    TEAM_DELETED,
+    TEAM_MEMBER_ADDED,
+    TEAM_MEMBER_REMOVED
+}
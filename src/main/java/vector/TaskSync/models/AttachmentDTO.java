@@ -0,0 +1,19 @@
+package vector.TaskSync.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDTO {
+    private Long id;
+    private String fileName;
+    private String fileUrl;
+    private Long taskId;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+}
@@ -0,0 +1,14 @@
+package vector.TaskSync.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkTaskResponse {
+    private int created;
+    private int failed;
+    private List<BulkTaskResult> results;
+}
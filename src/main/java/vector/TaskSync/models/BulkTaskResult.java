@@ -0,0 +1,24 @@
+package vector.TaskSync.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkTaskResult {
+    private int index;
+    private Long id;
+    private List<String> errors;
+
+    public static BulkTaskResult created(int index, Long id) {
+        return new BulkTaskResult(index, id, null);
+    }
+
+    public static BulkTaskResult failed(int index, List<String> errors) {
+        return new BulkTaskResult(index, null, errors);
+    }
+}
@@ -0,0 +1,7 @@
+package vector.TaskSync.models;
+
+public enum ChangedEntity {
+    TASK,
+    COMMENT,
+    ATTACHMENT
+}
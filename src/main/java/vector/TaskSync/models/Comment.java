@@ -45,7 +45,7 @@ public class Comment {
     private String createdBy;
 
     @CreatedDate
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
     @LastModifiedBy
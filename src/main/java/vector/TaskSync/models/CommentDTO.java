@@ -18,5 +18,21 @@ public class CommentDTO {
     private UserDTO author;
     private Long taskId; // Include task ID instead of full Task object
 
+    // Used by JPQL constructor expressions in CommentRepository
+    public CommentDTO(Long id, String content, LocalDateTime createdDate,
+                      Long authorId, String authorFirstName, String authorLastName, Long taskId) {
+        this.id = id;
+        this.content = content;
+        this.createdDate = createdDate;
+        this.taskId = taskId;
+        if (authorId != null) {
+            this.author = UserDTO.builder()
+                    .id(authorId)
+                    .firstName(authorFirstName)
+                    .lastName(authorLastName)
+                    .build();
+        }
+    }
+
     // Getters and setters
 }
\ No newline at end of file
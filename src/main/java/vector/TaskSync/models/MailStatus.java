@@ -0,0 +1,7 @@
+package vector.TaskSync.models;
+
+public enum MailStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -28,8 +29,31 @@ public class Project {
     private String name;
 
 
+    // Derived columns, written only by the bulk updates in ProjectRepository so that saving an edited project
+    // never overwrites a count changed by a concurrent task write
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(insertable = false, updatable = false)
     private Integer progress;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int taskCount;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int todoCount;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int inProgressCount;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int doneCount;
 
     private String description;
 
@@ -55,4 +79,7 @@ public class Project {
 
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    @Version
+    private Long version;
 }
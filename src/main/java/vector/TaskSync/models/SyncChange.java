@@ -0,0 +1,42 @@
+package vector.TaskSync.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change of a task, comment or attachment, numbered in the order the changes were written.
+ * Rows are never updated; a deleted entity keeps its rows, which is how deletions reach syncing
+ * clients.
+ */
+@Entity
+@Table(name = "sync_change")
+@Data
+@NoArgsConstructor
+public class SyncChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangedEntity entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    private Long projectId;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public SyncChange(ChangedEntity entityType, Long entityId, Long projectId, LocalDateTime changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.projectId = projectId;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package vector.TaskSync.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SyncResponse {
+    // Pass back as "since" on the next sync
+    private String watermark;
+    // The watermark was missing or too old: reload the full lists, then sync from the new one
+    private boolean reset;
+    // More changes are waiting; sync again right away
+    private boolean hasMore;
+    private List<TaskDTO> tasks;
+    private List<CommentDTO> comments;
+    private List<AttachmentDTO> attachments;
+    private List<Long> deletedTaskIds;
+    private List<Long> deletedCommentIds;
+    private List<Long> deletedAttachmentIds;
+
+    public static SyncResponse reset(String watermark) {
+        return new SyncResponse(watermark, true, false, List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+}
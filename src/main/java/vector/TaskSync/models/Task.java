@@ -20,7 +20,8 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
     @NotBlank(message = "blank should no be empty")
     @Column(nullable = false)
@@ -66,7 +67,7 @@ public class Task {
     private String createdBy;
 
     @CreatedDate
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
     @LastModifiedBy
@@ -75,5 +76,7 @@ public class Task {
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
 
+    @Version
+    private Long version;
 
 }
@@ -16,6 +16,48 @@ public class TaskDTO {
     private TaskStatus status;
     private Team team;
     private LocalDateTime dueDate;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
     private ProjectDTO project;
     private UserDTO assignee;
-}
\ No newline at end of file
+    private Long version;
+
+    // Used by JPQL constructor expressions in TaskRepository, one flat row per task
+    public TaskDTO(Long id, String title, String description, TaskStatus status, LocalDateTime dueDate, LocalDateTime createdDate,
+                   LocalDateTime lastModifiedDate,
+                   Long teamId, String teamName,
+                   Long projectId, String projectName, Long projectTeamId, String projectTeamName,
+                   Long assigneeId, String assigneeFirstName, String assigneeLastName, String assigneeEmail,
+                   Role assigneeRole, Gender assigneeGender, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.createdDate = createdDate;
+        this.lastModifiedDate = lastModifiedDate;
+        this.version = version;
+        this.team = teamReference(teamId, teamName);
+        this.project = new ProjectDTO(projectId, projectName, teamReference(projectTeamId, projectTeamName));
+        if (assigneeId != null) {
+            this.assignee = UserDTO.builder()
+                    .id(assigneeId)
+                    .firstName(assigneeFirstName)
+                    .lastName(assigneeLastName)
+                    .email(assigneeEmail)
+                    .role(assigneeRole != null ? assigneeRole.toString() : null)
+                    .gender(assigneeGender != null ? assigneeGender.toString() : null)
+                    .build();
+        }
+    }
+
+    private static Team teamReference(Long id, String name) {
+        if (id == null) {
+            return null;
+        }
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+}
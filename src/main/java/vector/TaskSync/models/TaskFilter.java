@@ -0,0 +1,16 @@
+package vector.TaskSync.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters of the task query endpoint; null or empty means the filter is not applied. The due-date
+ * range is inclusive at both ends.
+ */
+public record TaskFilter(List<TaskStatus> statuses,
+                         Long assigneeId,
+                         Long teamId,
+                         Long projectId,
+                         LocalDateTime dueFrom,
+                         LocalDateTime dueTo) {
+}
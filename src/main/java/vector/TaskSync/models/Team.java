@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import lombok.Cleanup;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -14,6 +16,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity
 @Data
 @EntityListeners(AuditingEntityListener.class)
@@ -26,6 +30,7 @@ public class Team {
     private String name;
 
     @ManyToMany(mappedBy = "teams")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ToString.Exclude
     private List<User> members;
 
@@ -38,7 +43,7 @@ public class Team {
     private String createdBy;
 
     @CreatedDate
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
     @LastModifiedBy
@@ -47,4 +52,6 @@ public class Team {
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
 
+    @Version
+    private Long version;
 }
@@ -7,7 +7,11 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Data
 @Builder
@@ -19,11 +23,18 @@ public class Token {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_seq")
-    @SequenceGenerator(name = "token_seq", sequenceName = "token_seq", allocationSize = 1)
+    @SequenceGenerator(name = "token_seq", sequenceName = "token_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, length = 1024)
-    private String token;
+    // SHA-256 of the raw token, the raw value itself is never stored
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // JWT id, null for password reset tokens
+    @Column(length = 36)
+    private String jti;
+
+    private LocalDateTime expiresAt;
 
     @Enumerated(EnumType.STRING)
     private TokenType tokenType = TokenType.BEARER;
@@ -54,6 +65,12 @@ public class Token {
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
 
-
-
-}
\ No newline at end of file
+    public static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
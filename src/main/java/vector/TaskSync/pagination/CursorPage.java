@@ -0,0 +1,32 @@
+package vector.TaskSync.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra row only tells us
+     * whether another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+
+    /**
+     * Same as {@link #of}, for a listing paged by offset, where {@code rows} start at {@code offset}.
+     */
+    public static <T> CursorPage<T> atOffset(List<T> rows, int size, int offset) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, size), new OffsetCursor(offset + size).encode());
+    }
+}
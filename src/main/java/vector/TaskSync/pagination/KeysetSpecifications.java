@@ -0,0 +1,31 @@
+package vector.TaskSync.pagination;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seek predicates for listings built from Specifications. The leading {@code >=} bound keeps the
+ * predicate a range scan on the sort index; the disjunction only breaks ties within it.
+ */
+public final class KeysetSpecifications {
+
+    public static final Sort BY_CREATED_DATE = Sort.by("createdDate", "id");
+    public static final Sort BY_ID = Sort.by("id");
+
+    private KeysetSpecifications() {
+    }
+
+    public static <T> Specification<T> createdAfter(Cursor cursor) {
+        LocalDateTime createdDate = cursor.dateKey();
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdDate"), createdDate),
+                cb.or(cb.greaterThan(root.get("createdDate"), createdDate),
+                        cb.greaterThan(root.get("id"), cursor.id())));
+    }
+
+    public static <T> Specification<T> idAfter(Cursor cursor) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), cursor.id());
+    }
+}
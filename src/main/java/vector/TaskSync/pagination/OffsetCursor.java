@@ -0,0 +1,38 @@
+package vector.TaskSync.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing paged by offset, for orders that no index can seek on. Opaque to clients
+ * like {@link Cursor}, but tagged so a keyset listing rejects it and an offset listing rejects a
+ * keyset cursor.
+ */
+public record OffsetCursor(int offset) {
+
+    private static final String PREFIX = "offset:";
+
+    public static OffsetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Not an offset cursor");
+            }
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Negative offset");
+            }
+            return new OffsetCursor(offset);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid cursor for this listing");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+}
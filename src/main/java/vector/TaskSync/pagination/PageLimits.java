@@ -0,0 +1,24 @@
+package vector.TaskSync.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PageLimits {
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public PageLimits(@Value("${application.pagination.default-size:100}") int defaultSize,
+                      @Value("${application.pagination.max-size:500}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public int resolve(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -0,0 +1,227 @@
+package vector.TaskSync.reminders;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.models.TaskStatus;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.services.TasksChangedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Fires a {@link TaskReminderEvent} when an unfinished task becomes due soon and when it becomes
+ * overdue, without scanning the task table.
+ * <p>
+ * Only reminders falling in the next window of time are held in memory, in a {@link TimerWheel}.
+ * When the reminder thread gets within half a window of the loaded horizon it reads the next
+ * window with two range scans on the due-date index: tasks due in the window become overdue in
+ * it, tasks due one lead time after it become due soon in it. Each reminder is read once and
+ * costs constant time to schedule, cancel and fire. Task writes publish a
+ * {@link TasksChangedEvent}; the changed tasks are re-read and their pending reminders replaced.
+ * <p>
+ * Reminders whose time passed while the application was down, or that were already due when the
+ * task was created or moved, are not fired retroactively.
+ */
+@Component
+@ConditionalOnProperty(name = "application.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate primaryRead;
+    private final long dueSoonMillis;
+    private final long windowMillis;
+    private final long tickMillis;
+    private final LongSupplier clock;
+
+    // Everything below is only touched on the reminder thread
+    private final Map<Long, TimerWheel.Timeout[]> pending = new HashMap<>();
+    private TimerWheel wheel;
+    // Reminders due before this time have been loaded
+    private long loadedUntil;
+    private volatile ScheduledExecutorService executor;
+
+    @Autowired
+    public ReminderScheduler(TaskRepository taskRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${application.reminders.due-soon:24h}") Duration dueSoon,
+                             @Value("${application.reminders.window:1h}") Duration window,
+                             @Value("${application.reminders.tick:1s}") Duration tick) {
+        this(taskRepository, eventPublisher, transactionManager, dueSoon, window, tick, System::currentTimeMillis);
+    }
+
+    ReminderScheduler(TaskRepository taskRepository,
+                      ApplicationEventPublisher eventPublisher,
+                      PlatformTransactionManager transactionManager,
+                      Duration dueSoon,
+                      Duration window,
+                      Duration tick,
+                      LongSupplier clock) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        // Read-write so it stays on the primary: a lagging replica could hide a due date just changed
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.dueSoonMillis = dueSoon.toMillis();
+        this.windowMillis = window.toMillis();
+        this.tickMillis = tick.toMillis();
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ScheduledExecutorService started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        started.execute(this::reset);
+        started.scheduleWithFixedDelay(this::tickSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        executor = started;
+        logger.info("Task reminders started: due soon {} ms ahead, loaded {} ms at a time", dueSoonMillis, windowMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksChanged(TasksChangedEvent event) {
+        ScheduledExecutorService current = executor;
+        // Before start-up the first window load reads these tasks anyway
+        if (current != null) {
+            List<Long> taskIds = List.copyOf(event.taskIds());
+            current.execute(() -> {
+                try {
+                    refresh(taskIds);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not refresh reminders for {} tasks: {}", taskIds.size(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    void reset() {
+        long now = clock.getAsLong();
+        // Enough slots for the furthest horizon, half a window ahead plus a full window
+        int slots = (int) Math.min(1 << 20, (windowMillis + windowMillis / 2) / tickMillis + 1);
+        wheel = new TimerWheel(slots, tickMillis, now);
+        pending.clear();
+        loadedUntil = now;
+    }
+
+    void tick() {
+        long now = clock.getAsLong();
+        while (now + windowMillis / 2 >= loadedUntil) {
+            loadWindow(loadedUntil, loadedUntil + windowMillis);
+        }
+        wheel.advance(now, this::fire);
+    }
+
+    void refresh(Collection<Long> taskIds) {
+        Map<Long, TaskDueDate> tasks = new HashMap<>();
+        primaryRead.executeWithoutResult(status ->
+                taskRepository.findDueDatesByIdIn(taskIds).forEach(task -> tasks.put(task.id(), task)));
+        for (Long taskId : taskIds) {
+            TimerWheel.Timeout[] timeouts = pending.remove(taskId);
+            if (timeouts != null) {
+                Arrays.stream(timeouts).filter(Objects::nonNull).forEach(wheel::cancel);
+            }
+            TaskDueDate task = tasks.get(taskId);
+            if (task != null && task.dueDate() != null && task.status() != TaskStatus.DONE) {
+                long due = toMillis(task.dueDate());
+                schedule(task, ReminderType.DUE_SOON, due - dueSoonMillis);
+                schedule(task, ReminderType.OVERDUE, due);
+            }
+        }
+    }
+
+    int pendingCount() {
+        return wheel.size();
+    }
+
+    private void loadWindow(long from, long to) {
+        List<TaskDueDate> tasks = primaryRead.execute(status -> taskRepository.findDueInWindow(
+                toDateTime(from), toDateTime(to), toDateTime(from + dueSoonMillis), toDateTime(to + dueSoonMillis)));
+        loadedUntil = to;
+        for (TaskDueDate task : tasks) {
+            long due = toMillis(task.dueDate());
+            if (due >= from && due < to) {
+                schedule(task, ReminderType.OVERDUE, due);
+            }
+            if (due - dueSoonMillis >= from && due - dueSoonMillis < to) {
+                schedule(task, ReminderType.DUE_SOON, due - dueSoonMillis);
+            }
+        }
+        logger.debug("Loaded {} task reminders up to {}", tasks.size(), toDateTime(to));
+    }
+
+    // Only reminders still ahead of the wheel and inside the loaded horizon; later ones come with their window
+    private void schedule(TaskDueDate task, ReminderType type, long fireAt) {
+        if (fireAt <= wheel.processedUntilMillis() || fireAt >= loadedUntil) {
+            return;
+        }
+        TimerWheel.Timeout[] timeouts = pending.computeIfAbsent(task.id(), id -> new TimerWheel.Timeout[ReminderType.values().length]);
+        if (timeouts[type.ordinal()] != null) {
+            wheel.cancel(timeouts[type.ordinal()]);
+        }
+        timeouts[type.ordinal()] = wheel.schedule(task.id(), type, task.dueDate(), fireAt);
+    }
+
+    private void fire(TimerWheel.Timeout timeout) {
+        TimerWheel.Timeout[] timeouts = pending.get(timeout.taskId);
+        if (timeouts != null) {
+            timeouts[timeout.type.ordinal()] = null;
+            if (Arrays.stream(timeouts).allMatch(Objects::isNull)) {
+                pending.remove(timeout.taskId);
+            }
+        }
+        try {
+            eventPublisher.publishEvent(new TaskReminderEvent(timeout.taskId, timeout.type, timeout.dueDate));
+        } catch (RuntimeException e) {
+            logger.warn("Reminder listener failed for task {}: {}", timeout.taskId, e.getMessage());
+        }
+    }
+
+    // A failed window load is retried on the next tick; the loaded horizon only moves once it is read
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            logger.warn("Task reminder tick failed: {}", e.getMessage());
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package vector.TaskSync.reminders;
+
+public enum ReminderType {
+    DUE_SOON,
+    OVERDUE
+}
@@ -0,0 +1,8 @@
+package vector.TaskSync.reminders;
+
+import vector.TaskSync.models.TaskStatus;
+
+import java.time.LocalDateTime;
+
+public record TaskDueDate(Long id, LocalDateTime dueDate, TaskStatus status) {
+}
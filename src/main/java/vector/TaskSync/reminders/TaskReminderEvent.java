@@ -0,0 +1,11 @@
+package vector.TaskSync.reminders;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a task's due date is near ({@link ReminderType#DUE_SOON}) or has passed
+ * ({@link ReminderType#OVERDUE}) while the task is not done. Listeners run on the reminder
+ * thread, so anything slow should be handed off.
+ */
+public record TaskReminderEvent(Long taskId, ReminderType type, LocalDateTime dueDate) {
+}
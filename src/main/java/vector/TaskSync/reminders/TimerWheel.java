@@ -0,0 +1,109 @@
+package vector.TaskSync.reminders;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel: one slot per tick, each a doubly linked list, so scheduling and cancelling
+ * are constant time and advancing one tick only visits the timers of that slot. Deadlines further
+ * out than one turn of the wheel stay in their slot until their turn comes; the scheduler keeps
+ * the loaded horizon within one turn, so in practice every timer is visited once.
+ * <p>
+ * Not thread-safe; owned by the reminder thread.
+ */
+final class TimerWheel {
+
+    static final class Timeout {
+        final long taskId;
+        final ReminderType type;
+        final LocalDateTime dueDate;
+        private final long deadlineTick;
+        private Timeout previous;
+        private Timeout next;
+        private int slot = -1;
+
+        private Timeout(long taskId, ReminderType type, LocalDateTime dueDate, long deadlineTick) {
+            this.taskId = taskId;
+            this.type = type;
+            this.dueDate = dueDate;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final Timeout[] slots;
+    private final int mask;
+    private final long tickMillis;
+    // Every deadline up to the end of this tick has been fired
+    private long currentTick;
+    private int size;
+
+    TimerWheel(int minimumSlots, long tickMillis, long startMillis) {
+        int slotCount = Integer.highestOneBit(Math.max(2, minimumSlots) - 1) << 1;
+        this.slots = new Timeout[slotCount];
+        this.mask = slotCount - 1;
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules a timer that fires on the first {@link #advance} that reaches {@code fireAtMillis},
+     * or on the next one if that time has already been passed.
+     */
+    Timeout schedule(long taskId, ReminderType type, LocalDateTime dueDate, long fireAtMillis) {
+        long deadlineTick = Math.max(currentTick + 1, Math.floorDiv(fireAtMillis + tickMillis - 1, tickMillis));
+        Timeout timeout = new Timeout(taskId, type, dueDate, deadlineTick);
+        int slot = (int) (deadlineTick & mask);
+        timeout.slot = slot;
+        timeout.next = slots[slot];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        slots[slot] = timeout;
+        size++;
+        return timeout;
+    }
+
+    void cancel(Timeout timeout) {
+        if (timeout.slot < 0) {
+            return;
+        }
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        size--;
+    }
+
+    // Fires, in tick order, every timer due up to nowMillis
+    void advance(long nowMillis, Consumer<Timeout> expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < nowTick) {
+            currentTick++;
+            Timeout timeout = slots[(int) (currentTick & mask)];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.deadlineTick <= currentTick) {
+                    cancel(timeout);
+                    expired.accept(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    // Times at or before this have been fired; a timer for them would fire on the next advance
+    long processedUntilMillis() {
+        return currentTick * tickMillis;
+    }
+
+    int size() {
+        return size;
+    }
+}
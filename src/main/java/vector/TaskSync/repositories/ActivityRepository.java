@@ -0,0 +1,14 @@
+package vector.TaskSync.repositories;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import vector.TaskSync.models.Activity;
+
+import java.util.List;
+
+public interface ActivityRepository extends JpaRepository<Activity, Long> {
+
+    List<Activity> findByTaskIdOrderByIdDesc(Long taskId, Limit limit);
+
+    List<Activity> findByTaskIdAndIdLessThanOrderByIdDesc(Long taskId, Long id, Limit limit);
+}
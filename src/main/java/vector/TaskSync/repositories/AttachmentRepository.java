@@ -1,7 +1,44 @@
 package vector.TaskSync.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import vector.TaskSync.export.AttachmentExportRow;
+import vector.TaskSync.export.ExportRow;
 import vector.TaskSync.models.Attachment;
+import vector.TaskSync.models.AttachmentDTO;
 
-public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, Long>, JpaSpecificationExecutor<Attachment> {
+
+    @Query("select a.task.project.team.id from Attachment a where a.id = :id")
+    Optional<Long> findProjectTeamIdById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportRow.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+      select new vector.TaskSync.export.AttachmentExportRow(a.id, t.id, a.fileName, a.fileUrl, a.createdBy, a.createdDate)
+      from Attachment a
+        join a.task t
+      where t.project.id = :projectId
+      order by a.id
+      """)
+    Stream<AttachmentExportRow> streamExportRowsByProjectId(@Param("projectId") Long projectId);
+
+    @Query("""
+      select new vector.TaskSync.models.AttachmentDTO(a.id, a.fileName, a.fileUrl, a.task.id, a.createdDate, a.lastModifiedDate)
+      from Attachment a
+      where a.id in :ids
+      """)
+    List<AttachmentDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
 }
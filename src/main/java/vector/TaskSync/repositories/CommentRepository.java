@@ -1,10 +1,55 @@
 package vector.TaskSync.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import vector.TaskSync.export.CommentExportRow;
+import vector.TaskSync.export.ExportRow;
 import vector.TaskSync.models.Comment;
+import vector.TaskSync.models.CommentDTO;
+import vector.TaskSync.search.CommentSearchRow;
+import vector.TaskSync.search.TaskSearchRow;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface CommentRepository  extends JpaRepository<Comment, Long> {
+public interface CommentRepository  extends JpaRepository<Comment, Long>, JpaSpecificationExecutor<Comment> {
     List<Comment> findByTaskId(Long taskId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportRow.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+      select new vector.TaskSync.export.CommentExportRow(c.id, t.id, c.content, u.email, c.createdDate)
+      from Comment c
+        join c.task t
+        left join c.author u
+      where t.project.id = :projectId
+      order by c.createdDate, c.id
+      """)
+    Stream<CommentExportRow> streamExportRowsByProjectId(@Param("projectId") Long projectId);
+
+    @Query("select new vector.TaskSync.search.CommentSearchRow(c.task.id, c.content) from Comment c where c.task.id in :taskIds")
+    List<CommentSearchRow> findSearchRowsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TaskSearchRow.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new vector.TaskSync.search.CommentSearchRow(c.task.id, c.content) from Comment c where c.task is not null order by c.task.id")
+    Stream<CommentSearchRow> streamSearchRows();
+
+    @Query("""
+      select new vector.TaskSync.models.CommentDTO(c.id, c.content, c.createdDate, a.id, a.firstName, a.lastName, c.task.id)
+      from Comment c
+        left join c.author a
+      where c.id in :ids
+      """)
+    List<CommentDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,21 @@
+package vector.TaskSync.repositories;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import vector.TaskSync.models.MailOutbox;
+import vector.TaskSync.models.MailStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    // SKIP LOCKED lets several dispatchers drain the outbox without sending the same row twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<MailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(MailStatus status, LocalDateTime now, Limit limit);
+}
@@ -1,8 +1,10 @@
 package vector.TaskSync.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import vector.TaskSync.conditional.ListStamp;
 import vector.TaskSync.models.Project;
 import vector.TaskSync.models.Team;
 
@@ -11,6 +13,43 @@ import java.util.Optional;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByTeamId(Long teamId);
+
+    @Query("select new vector.TaskSync.conditional.ListStamp(count(p), max(p.lastModifiedDate)) from Project p where p.team.id = :teamId")
+    ListStamp findListStampByTeamId(@Param("teamId") Long teamId);
+
+    @Query("select p.team.id from Project p where p.id = :projectId")
+    Optional<Long> findTeamIdById(@Param("projectId") Long projectId);
+
+    // Applied in place so concurrent task writes on the same project never lose an update. The counts are part of the
+    // project's representation, so the modification time moves too; the version does not, so edits don't conflict.
+    @Modifying
+    @Query("""
+      update Project p set
+        p.taskCount = p.taskCount + :total,
+        p.todoCount = p.todoCount + :todo,
+        p.inProgressCount = p.inProgressCount + :inProgress,
+        p.doneCount = p.doneCount + :done,
+        p.progress = case when p.taskCount + :total > 0
+          then ((p.doneCount + :done) * 100) / (p.taskCount + :total) else 0 end,
+        p.lastModifiedDate = local datetime
+      where p.id = :projectId
+      """)
+    int adjustTaskCounts(@Param("projectId") Long projectId, @Param("total") int total, @Param("todo") int todo,
+                         @Param("inProgress") int inProgress, @Param("done") int done);
+
+    @Modifying
+    @Query(value = """
+      update project set
+        task_count = (select count(*) from task t where t.project_id = project.id),
+        todo_count = (select count(*) from task t where t.project_id = project.id and t.status = 'TODO'),
+        in_progress_count = (select count(*) from task t where t.project_id = project.id and t.status = 'IN_PROGRESS'),
+        done_count = (select count(*) from task t where t.project_id = project.id and t.status = 'DONE')
+      """, nativeQuery = true)
+    int recountTasks();
+
+    @Modifying
+    @Query("update Project p set p.progress = case when p.taskCount > 0 then (p.doneCount * 100) / p.taskCount else 0 end")
+    int recomputeProgress();
 //    @Query("SELECT p FROM Project p LEFT JOIN FETCH p.team WHERE p.id = :projectId")
 //    Optional<Project> findByIdWithTeam(@Param("projectId") Long projectId);
 
@@ -0,0 +1,52 @@
+package vector.TaskSync.repositories;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.models.ChangedEntity;
+import vector.TaskSync.models.SyncChange;
+import vector.TaskSync.sync.SyncChangeRow;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long> {
+
+    @Query("""
+      select new vector.TaskSync.sync.SyncChangeRow(c.id, c.entityType, c.entityId, pt.id, c.changedAt)
+      from SyncChange c
+        left join Project p on p.id = c.projectId
+        left join p.team pt
+      where c.id > :since
+      order by c.id
+      """)
+    List<SyncChangeRow> findAfter(@Param("since") long since, Limit limit);
+
+    @Query("select max(c.id) from SyncChange c")
+    Optional<Long> findLatestId();
+
+    // One statement for a whole batch of tasks instead of one identity insert per task
+    @Modifying
+    @Query("""
+      insert into SyncChange (entityType, entityId, projectId, changedAt)
+      select :entityType, t.id, t.project.id, :changedAt from Task t where t.id in :ids
+      """)
+    int recordTaskChanges(@Param("entityType") ChangedEntity entityType,
+                          @Param("ids") Collection<Long> ids,
+                          @Param("changedAt") LocalDateTime changedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+      delete from sync_change where id in (
+        select id from sync_change
+        where changed_at < :cutoff
+        limit :limit)
+      """, nativeQuery = true)
+    int deleteOlderThan(LocalDateTime cutoff, int limit);
+}
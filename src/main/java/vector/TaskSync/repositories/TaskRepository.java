@@ -1,12 +1,25 @@
 package vector.TaskSync.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import vector.TaskSync.conditional.ListStamp;
+import vector.TaskSync.export.ExportRow;
+import vector.TaskSync.export.TaskExportRow;
 import vector.TaskSync.models.Task;
+import vector.TaskSync.models.TaskDTO;
+import vector.TaskSync.reminders.TaskDueDate;
+import vector.TaskSync.search.TaskSearchRow;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
@@ -17,5 +30,100 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     List<Task> findByProjectId(Long id);
 
+    String TASK_DTO_SELECT = """
+      select new vector.TaskSync.models.TaskDTO(
+        t.id, t.title, t.description, t.status, t.dueDate, t.createdDate, t.lastModifiedDate,
+        tt.id, tt.name,
+        p.id, p.name, pt.id, pt.name,
+        a.id, a.firstName, a.lastName, a.email, a.role, a.gender, t.version)
+      from Task t
+        join t.project p
+        left join p.team pt
+        left join t.team tt
+        left join t.assignee a
+      """;
 
+    @Query(TASK_DTO_SELECT + "where p.id = :projectId")
+    List<TaskDTO> findDtosByProjectId(@Param("projectId") Long projectId);
+
+    @Query(TASK_DTO_SELECT + "where t.id = :id")
+    Optional<TaskDTO> findDtoById(@Param("id") Long id);
+
+    @Query(TASK_DTO_SELECT + "where t.id in :ids")
+    List<TaskDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new vector.TaskSync.conditional.ListStamp(count(t), max(t.lastModifiedDate)) from Task t where t.project.id = :projectId")
+    ListStamp findListStampByProjectId(@Param("projectId") Long projectId);
+
+    @Query("select t.project.id from Task t where t.id = :id")
+    Optional<Long> findProjectIdById(@Param("id") Long id);
+
+    @Query("select t.project.team.id from Task t where t.id = :id")
+    Optional<Long> findProjectTeamIdById(@Param("id") Long id);
+
+    // Keyset pages ordered by (createdDate, id); the row-value comparison seeks on the same index
+
+    @Query(TASK_DTO_SELECT + "where p.id = :projectId order by t.createdDate, t.id")
+    List<TaskDTO> findDtoPageByProjectId(@Param("projectId") Long projectId, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where p.id = :projectId and (t.createdDate, t.id) > (:createdDate, :id) order by t.createdDate, t.id")
+    List<TaskDTO> findDtoPageByProjectIdAfter(@Param("projectId") Long projectId,
+                                              @Param("createdDate") LocalDateTime createdDate,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    @Query("select t from Task t order by t.createdDate, t.id")
+    List<Task> findPage(Limit limit);
+
+    @Query("select t from Task t where (t.createdDate, t.id) > (:createdDate, :id) order by t.createdDate, t.id")
+    List<Task> findPageAfter(@Param("createdDate") LocalDateTime createdDate, @Param("id") Long id, Limit limit);
+
+    // Export cursor: flat scalar rows, so nothing is added to the persistence context as it is read
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportRow.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+      select new vector.TaskSync.export.TaskExportRow(
+        t.id, t.title, t.description, t.status, t.dueDate, a.id, a.email, t.createdBy, t.createdDate, t.lastModifiedDate)
+      from Task t
+        left join t.assignee a
+      where t.project.id = :projectId
+      order by t.createdDate, t.id
+      """)
+    Stream<TaskExportRow> streamExportRowsByProjectId(@Param("projectId") Long projectId);
+
+    String SEARCH_ROW_SELECT = """
+      select new vector.TaskSync.search.TaskSearchRow(t.id, pt.id, t.title, t.description)
+      from Task t
+        join t.project p
+        left join p.team pt
+      """;
+
+    @Query(SEARCH_ROW_SELECT + "where t.id in :ids")
+    List<TaskSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Search index rebuild cursor, merged with the comment cursor by task id
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TaskSearchRow.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SEARCH_ROW_SELECT + "order by t.id")
+    Stream<TaskSearchRow> streamSearchRows();
+
+    // Two range scans on idx_task_due: tasks turning overdue in the window and tasks turning due soon in it
+    @Query("""
+      select new vector.TaskSync.reminders.TaskDueDate(t.id, t.dueDate, t.status)
+      from Task t
+      where ((t.dueDate >= :overdueFrom and t.dueDate < :overdueTo)
+          or (t.dueDate >= :dueSoonFrom and t.dueDate < :dueSoonTo))
+        and t.status <> vector.TaskSync.models.TaskStatus.DONE
+      """)
+    List<TaskDueDate> findDueInWindow(@Param("overdueFrom") LocalDateTime overdueFrom,
+                                      @Param("overdueTo") LocalDateTime overdueTo,
+                                      @Param("dueSoonFrom") LocalDateTime dueSoonFrom,
+                                      @Param("dueSoonTo") LocalDateTime dueSoonTo);
+
+    @Query("select new vector.TaskSync.reminders.TaskDueDate(t.id, t.dueDate, t.status) from Task t where t.id in :ids")
+    List<TaskDueDate> findDueDatesByIdIn(@Param("ids") Collection<Long> ids);
 }
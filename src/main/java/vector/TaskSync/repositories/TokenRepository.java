@@ -1,15 +1,22 @@
 package vector.TaskSync.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import vector.TaskSync.models.Token;
 import vector.TaskSync.models.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    Optional <Token> findByToken(String token);
+    Optional<Token> findByTokenHash(String tokenHash);
+
+    default Optional<Token> findByToken(String rawToken) {
+        return findByTokenHash(Token.hash(rawToken));
+    }
 
 
     @Query(value = """
@@ -18,4 +25,18 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
       where u.id = :id and (t.expired = false or t.revoked = false)\s
       """)
     List<Token> findAllValidTokenByUser(Long id);
+
+    @Query("select t from Token t where t.revoked = true and t.jti is not null and t.expiresAt > :now")
+    List<Token> findAllRevokedUnexpired(LocalDateTime now);
+
+    // Revoked tokens are kept until they expire so the revocation index can be rebuilt on startup
+    @Modifying
+    @Transactional
+    @Query(value = """
+      delete from token where id in (
+        select id from token
+        where expires_at < :now or (expires_at is null and (revoked or expired))
+        limit :limit)
+      """, nativeQuery = true)
+    int deleteExpired(LocalDateTime now, int limit);
 }
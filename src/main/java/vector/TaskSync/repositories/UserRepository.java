@@ -1,14 +1,30 @@
 package vector.TaskSync.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import vector.TaskSync.models.User;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+   // Authentication and authorization inputs: read-write so they stay on the primary, not a lagging replica
+   @Transactional
    Optional <User> findByEmail(String email);
 
+   @Transactional
+   @Query(value = "select ut.team_id from user_teams ut join users u on u.id = ut.user_id where u.email = :email", nativeQuery = true)
+   List<Long> findTeamIdsByEmail(@Param("email") String email);
 
+   // Email is unique, so (email, id) pages seek on the unique email index
+   @Query("select u from User u order by u.email, u.id")
+   List<User> findPage(Limit limit);
+
+   @Query("select u from User u where (u.email, u.id) > (:email, :id) order by u.email, u.id")
+   List<User> findPageAfter(@Param("email") String email, @Param("id") Long id, Limit limit);
 
 }
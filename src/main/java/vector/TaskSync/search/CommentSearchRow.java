@@ -0,0 +1,4 @@
+package vector.TaskSync.search;
+
+public record CommentSearchRow(Long taskId, String content) {
+}
@@ -0,0 +1,95 @@
+package vector.TaskSync.search;
+
+/**
+ * Open-addressing map from non-zero long keys to int values, so a million entries take two flat
+ * arrays instead of a million boxed nodes. Removal shifts later entries back, so no tombstones
+ * build up.
+ */
+final class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // The value for the key, or -1
+    int get(long key) {
+        int index = indexOf(key);
+        return keys[index] == key ? values[index] : -1;
+    }
+
+    void put(long key, int value) {
+        int index = indexOf(key);
+        values[index] = value;
+        if (keys[index] != key) {
+            keys[index] = key;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+    }
+
+    // The removed value, or -1
+    int remove(long key) {
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            return -1;
+        }
+        int removed = values[index];
+        // Move back any entry that probed past the freed slot, so lookups never stop short of it
+        int free = index;
+        int next = (free + 1) & mask;
+        while (keys[next] != 0) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = 0;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int indexOf(long key) {
+        int index = mix(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new int[keys.length];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
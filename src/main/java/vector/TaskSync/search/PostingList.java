@@ -0,0 +1,59 @@
+package vector.TaskSync.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Ascending document numbers of one term, stored as variable-length deltas. Documents are numbered
+ * in the order they are indexed, so a new posting is always an append and most deltas fit in one
+ * or two bytes.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int last = -1;
+    private int size;
+
+    void add(int doc) {
+        if (doc <= last) {
+            throw new IllegalArgumentException("Postings must be added in ascending order");
+        }
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length << 1);
+        }
+        int delta = doc - last;
+        while ((delta & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+        last = doc;
+        size++;
+    }
+
+    void forEach(IntConsumer action) {
+        int doc = -1;
+        int position = 0;
+        while (position < length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            action.accept(doc);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int byteSize() {
+        return length;
+    }
+}
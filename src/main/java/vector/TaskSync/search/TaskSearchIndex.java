@@ -0,0 +1,215 @@
+package vector.TaskSync.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Inverted index from words to the tasks whose title, description or comments contain them.
+ * <p>
+ * Each indexed version of a task is a document, numbered in indexing order. Re-indexing a task
+ * marks its old document deleted and appends a new one, so posting lists only ever grow at the
+ * end; {@link #compact()} drops deleted documents once they pile up. The dictionary is sorted, so
+ * a prefix is a range of terms. Each document keeps the team of its task's project, which is what
+ * results are filtered on.
+ * <p>
+ * Meant for a single writer thread; searches may run concurrently from any thread.
+ */
+final class TaskSearchIndex {
+
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+    private final LongIntHashMap docsByTask;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] docTask;
+    private long[] docTeam;
+    private long[] deleted;
+    private int docCount;
+    private int deletedCount;
+
+    TaskSearchIndex(int expectedTasks) {
+        int capacity = Math.max(64, expectedTasks);
+        docsByTask = new LongIntHashMap(capacity);
+        docTask = new long[capacity];
+        docTeam = new long[capacity];
+        deleted = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Indexes the task under the given words, replacing what was indexed for it before.
+     *
+     * @param teamId the team of the task's project, or 0 when it has none
+     */
+    void put(long taskId, long teamId, Collection<String> words) {
+        lock.writeLock().lock();
+        try {
+            delete(docsByTask.get(taskId));
+            int doc = docCount++;
+            if (doc == docTask.length) {
+                docTask = Arrays.copyOf(docTask, doc << 1);
+                docTeam = Arrays.copyOf(docTeam, doc << 1);
+                deleted = Arrays.copyOf(deleted, ((doc << 1) + 63) >>> 6);
+            }
+            docTask[doc] = taskId;
+            docTeam[doc] = teamId;
+            docsByTask.put(taskId, doc);
+            for (String word : words) {
+                terms.computeIfAbsent(word, key -> new PostingList()).add(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            delete(docsByTask.remove(taskId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of tasks containing every word, most recently indexed first. The last word also matches
+     * as a prefix, so results follow the user as they type.
+     *
+     * @param teamVisible decides, per team id, whether the caller may see the team's tasks
+     */
+    long[] search(List<String> words, LongPredicate teamVisible, int limit) {
+        lock.readLock().lock();
+        try {
+            List<List<PostingList>> clauses = new ArrayList<>(words.size());
+            for (int i = 0; i < words.size(); i++) {
+                String word = words.get(i);
+                List<PostingList> postings;
+                if (i == words.size() - 1 && word.length() >= MIN_PREFIX_LENGTH) {
+                    postings = new ArrayList<>(terms.subMap(word, true, word + Character.MAX_VALUE, false).values());
+                } else {
+                    PostingList exact = terms.get(word);
+                    postings = exact == null ? List.of() : List.of(exact);
+                }
+                if (postings.isEmpty()) {
+                    return new long[0];
+                }
+                clauses.add(postings);
+            }
+            // Start from the rarest word so later clauses only keep bits that are already set
+            clauses.sort(Comparator.comparingLong(TaskSearchIndex::postingCount));
+
+            long[] matches = new long[(docCount + 63) >>> 6];
+            clauses.get(0).forEach(postings -> postings.forEach(doc -> matches[doc >>> 6] |= 1L << doc));
+            for (int i = 0; i < matches.length; i++) {
+                matches[i] &= ~deleted[i];
+            }
+            long[] current = matches;
+            for (List<PostingList> clause : clauses.subList(1, clauses.size())) {
+                long[] previous = current;
+                long[] next = new long[previous.length];
+                clause.forEach(postings -> postings.forEach(doc -> next[doc >>> 6] |= previous[doc >>> 6] & (1L << doc)));
+                current = next;
+            }
+            return collect(current, teamVisible, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean needsCompaction() {
+        return deletedCount > 1024 && deletedCount > (docCount - deletedCount) / 4;
+    }
+
+    /**
+     * A copy without deleted documents, numbered densely in the same order. Only the writer thread
+     * may call this, and it should swap the copy in before indexing anything else.
+     */
+    TaskSearchIndex compact() {
+        lock.readLock().lock();
+        try {
+            TaskSearchIndex compacted = new TaskSearchIndex(size());
+            int[] renumbered = new int[docCount];
+            for (int doc = 0; doc < docCount; doc++) {
+                if (isDeleted(doc)) {
+                    renumbered[doc] = -1;
+                } else {
+                    int newDoc = compacted.docCount++;
+                    renumbered[doc] = newDoc;
+                    compacted.docTask[newDoc] = docTask[doc];
+                    compacted.docTeam[newDoc] = docTeam[doc];
+                    compacted.docsByTask.put(docTask[doc], newDoc);
+                }
+            }
+            terms.forEach((word, postings) -> {
+                PostingList copy = new PostingList();
+                postings.forEach(doc -> {
+                    if (renumbered[doc] >= 0) {
+                        copy.add(renumbered[doc]);
+                    }
+                });
+                if (copy.size() > 0) {
+                    compacted.terms.put(word, copy);
+                }
+            });
+            return compacted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        return docCount - deletedCount;
+    }
+
+    int termCount() {
+        return terms.size();
+    }
+
+    long postingBytes() {
+        lock.readLock().lock();
+        try {
+            return terms.values().stream().mapToLong(PostingList::byteSize).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void delete(int doc) {
+        if (doc >= 0 && !isDeleted(doc)) {
+            deleted[doc >>> 6] |= 1L << doc;
+            deletedCount++;
+        }
+    }
+
+    private boolean isDeleted(int doc) {
+        return (deleted[doc >>> 6] & (1L << doc)) != 0;
+    }
+
+    // Walks the matches from the highest document down, so the newest versions come first
+    private long[] collect(long[] matches, LongPredicate teamVisible, int limit) {
+        long[] taskIds = new long[limit];
+        int found = 0;
+        for (int word = matches.length - 1; word >= 0 && found < limit; word--) {
+            long bits = matches[word];
+            while (bits != 0 && found < limit) {
+                int bit = 63 - Long.numberOfLeadingZeros(bits);
+                bits &= ~(1L << bit);
+                int doc = (word << 6) | bit;
+                if (teamVisible.test(docTeam[doc])) {
+                    taskIds[found++] = docTask[doc];
+                }
+            }
+        }
+        return Arrays.copyOf(taskIds, found);
+    }
+
+    private static long postingCount(List<PostingList> clause) {
+        long count = 0;
+        for (PostingList postings : clause) {
+            count += postings.size();
+        }
+        return count;
+    }
+}
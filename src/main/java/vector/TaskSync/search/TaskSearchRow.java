@@ -0,0 +1,10 @@
+package vector.TaskSync.search;
+
+/**
+ * The indexed fields of a task, with the team of its project for result filtering.
+ */
+public record TaskSearchRow(Long id, Long teamId, String title, String description) {
+
+    // JDBC fetch size for the rebuild cursors; PostgreSQL only honours it inside a transaction
+    public static final String FETCH_SIZE = "1000";
+}
@@ -0,0 +1,243 @@
+package vector.TaskSync.search;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.config.ServiceOverloadedException;
+import vector.TaskSync.models.TaskDTO;
+import vector.TaskSync.repositories.CommentRepository;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.services.TasksChangedEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over task titles, descriptions and comments, answered from a
+ * {@link TaskSearchIndex} held in memory. The index is built from the database at start-up and
+ * then follows writes: the ids of changed tasks are queued after each commit, and a single indexer
+ * thread reloads them in batches and re-indexes them. That thread is the only writer, so the last
+ * reload of a task always wins and a rebuild never interleaves with an update.
+ */
+@Service
+public class TaskSearchService {
+
+    static final int MAX_QUERY_WORDS = 8;
+    private static final int BATCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchService.class);
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate primaryRead;
+    private final ExecutorService indexer;
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean updateQueued = new AtomicBoolean();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    // Null until the first build completes
+    private volatile TaskSearchIndex index;
+
+    public TaskSearchService(TaskRepository taskRepository,
+                             CommentRepository commentRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        // Read-write so it stays on the primary: a replica may not have the commit being indexed yet
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Tasks containing every word of the query, the last word also as a prefix, most recently
+     * changed first. Only tasks of projects in teams the caller may see are returned.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> search(String query, LongPredicate teamVisible, int limit) {
+        List<String> words = Tokenizer.tokens(query);
+        if (words.isEmpty()) {
+            throw new IllegalStateException("The search query must contain at least one word");
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            throw new IllegalStateException("The search query may contain at most " + MAX_QUERY_WORDS + " words");
+        }
+        TaskSearchIndex current = index;
+        if (current == null) {
+            throw new ServiceOverloadedException("The search index is still being built");
+        }
+        long[] taskIds = current.search(words, teamVisible, limit);
+        if (taskIds.length == 0) {
+            return List.of();
+        }
+        Map<Long, TaskDTO> tasks = taskRepository.findDtosByIdIn(Arrays.stream(taskIds).boxed().toList()).stream()
+                .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+        List<TaskDTO> results = new ArrayList<>(taskIds.length);
+        for (long taskId : taskIds) {
+            TaskDTO task = tasks.get(taskId);
+            // The index trails commits slightly; a task deleted since is simply left out
+            if (task != null) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            indexer.execute(this::rebuildIndex);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksChanged(TasksChangedEvent event) {
+        changed.addAll(event.taskIds());
+        if (updateQueued.compareAndSet(false, true)) {
+            indexer.execute(this::applyChanges);
+        }
+    }
+
+    // Picks up updates that failed, or a start-up build that could not reach the database
+    @Scheduled(fixedDelayString = "${application.search.retry-interval:30000}")
+    public void retry() {
+        if (index == null) {
+            rebuild();
+        } else if (!changed.isEmpty() && updateQueued.compareAndSet(false, true)) {
+            indexer.execute(this::applyChanges);
+        }
+    }
+
+    private void rebuildIndex() {
+        rebuildQueued.set(false);
+        long started = System.nanoTime();
+        try {
+            TaskSearchIndex rebuilt = primaryRead.execute(status -> build());
+            index = rebuilt;
+            logger.info("Indexed {} tasks for search ({} terms, {} KB of postings) in {} ms", rebuilt.size(),
+                    rebuilt.termCount(), rebuilt.postingBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Could not build the search index, will retry", e);
+            return;
+        }
+        // Writes that committed while the cursors were open
+        applyChanges();
+    }
+
+    private TaskSearchIndex build() {
+        TaskSearchIndex built = new TaskSearchIndex((int) Math.min(Integer.MAX_VALUE, taskRepository.count()));
+        try (Stream<TaskSearchRow> tasks = taskRepository.streamSearchRows();
+             Stream<CommentSearchRow> comments = commentRepository.streamSearchRows()) {
+            // Both cursors are ordered by task id, so each task's comments are met right after it
+            Iterator<CommentSearchRow> commentRows = comments.iterator();
+            CommentSearchRow comment = commentRows.hasNext() ? commentRows.next() : null;
+            Iterator<TaskSearchRow> taskRows = tasks.iterator();
+            while (taskRows.hasNext()) {
+                TaskSearchRow task = taskRows.next();
+                Set<String> words = words(task);
+                while (comment != null && comment.taskId() <= task.id()) {
+                    if (comment.taskId().equals(task.id())) {
+                        Tokenizer.addTokens(comment.content(), words);
+                    }
+                    comment = commentRows.hasNext() ? commentRows.next() : null;
+                }
+                built.put(task.id(), teamOf(task), words);
+            }
+        }
+        return built;
+    }
+
+    private void applyChanges() {
+        updateQueued.set(false);
+        TaskSearchIndex current = index;
+        if (current == null) {
+            // The first build reads everything committed so far and applies the rest when it ends
+            return;
+        }
+        while (!changed.isEmpty()) {
+            List<Long> batch = new ArrayList<>(BATCH_SIZE);
+            Iterator<Long> iterator = changed.iterator();
+            while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            try {
+                primaryRead.executeWithoutResult(status -> reindex(current, batch));
+            } catch (RuntimeException e) {
+                changed.addAll(batch);
+                logger.warn("Could not update the search index for {} tasks, will retry: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+        if (current.needsCompaction()) {
+            long started = System.nanoTime();
+            index = current.compact();
+            logger.debug("Compacted the search index to {} tasks in {} ms", index.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private void reindex(TaskSearchIndex target, List<Long> taskIds) {
+        Map<Long, TaskSearchRow> tasks = new HashMap<>();
+        Map<Long, Set<String>> words = new HashMap<>();
+        for (TaskSearchRow task : taskRepository.findSearchRowsByIdIn(taskIds)) {
+            tasks.put(task.id(), task);
+            words.put(task.id(), words(task));
+        }
+        for (CommentSearchRow comment : commentRepository.findSearchRowsByTaskIdIn(taskIds)) {
+            Set<String> taskWords = words.get(comment.taskId());
+            if (taskWords != null) {
+                Tokenizer.addTokens(comment.content(), taskWords);
+            }
+        }
+        for (Long taskId : taskIds) {
+            TaskSearchRow task = tasks.get(taskId);
+            if (task == null) {
+                target.remove(taskId);
+            } else {
+                target.put(taskId, teamOf(task), words.get(taskId));
+            }
+        }
+    }
+
+    private static Set<String> words(TaskSearchRow task) {
+        Set<String> words = new HashSet<>();
+        Tokenizer.addTokens(task.title(), words);
+        Tokenizer.addTokens(task.description(), words);
+        return words;
+    }
+
+    private static long teamOf(TaskSearchRow task) {
+        return task.teamId() != null ? task.teamId() : 0;
+    }
+
+    // Returns once everything queued so far has been indexed
+    void awaitIndexer() throws Exception {
+        indexer.submit(() -> {
+        }).get(30, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        indexer.shutdownNow();
+    }
+}
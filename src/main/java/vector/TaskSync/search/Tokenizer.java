@@ -0,0 +1,47 @@
+package vector.TaskSync.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits text into lower-cased runs of letters and digits. Tokens longer than
+ * {@link #MAX_TOKEN_LENGTH} are cut, which keeps the dictionary small while prefix queries on them
+ * still match.
+ */
+final class Tokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 32;
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        addTokens(text, tokens);
+        return tokens;
+    }
+
+    static void addTokens(String text, Collection<String> tokens) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        int length = text.length();
+        for (int i = 0; i < length; ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+    }
+}
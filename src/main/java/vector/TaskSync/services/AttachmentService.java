@@ -2,9 +2,17 @@ package vector.TaskSync.services;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.boards.BoardChangedEvent;
+import vector.TaskSync.boards.BoardEventType;
 import vector.TaskSync.models.Attachment;
 import vector.TaskSync.models.Task;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.KeysetSpecifications;
 import vector.TaskSync.repositories.AttachmentRepository;
 import vector.TaskSync.repositories.TaskRepository;
 
@@ -21,22 +29,38 @@ public class AttachmentService {
 
     private  final FileStorageService fileStorageService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     //create
+    @Transactional
     public Attachment createAttachment(Attachment attachment) {
-        return attachmentRepository.save(attachment);
+        attachment.setTask(managedTask(attachment.getTask()));
+        Attachment saved = attachmentRepository.save(attachment);
+        attachmentChanged(BoardEventType.ATTACHMENT_CREATED, saved);
+        return saved;
     }
 
     //findAll
-    public List<Attachment> getAllAttachments() {
-        return attachmentRepository.findAll();
+    // Attachments were never audited, so the primary key is the only reliable sort key
+    @Transactional(readOnly = true)
+    public CursorPage<Attachment> getAllAttachments(Specification<Attachment> visibility, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Specification<Attachment> filter = after == null ? visibility : visibility.and(KeysetSpecifications.idAfter(after));
+        List<Attachment> rows = attachmentRepository.findBy(filter, query -> query
+                .sortBy(KeysetSpecifications.BY_ID)
+                .limit(size + 1)
+                .all());
+        return CursorPage.of(rows, size, attachment -> Cursor.of(attachment.getId(), attachment.getId()));
     }
 
     //findbyid
+    @Transactional(readOnly = true)
     public Optional<Attachment> getAttachmentById(long id) {
         return attachmentRepository.findById(id);
     }
 
     //update
+    @Transactional
     public Attachment updateAttachment(Long id,Attachment updatedAttachment) {
         Optional<Attachment> attachmentOptional = attachmentRepository.findById(id);
         if (attachmentOptional.isPresent()) {
@@ -44,22 +68,51 @@ public class AttachmentService {
             attachment.setId(updatedAttachment.getId());
             attachment.setFileName(updatedAttachment.getFileName());
             attachment.setFileUrl(updatedAttachment.getFileUrl());
-            attachment.setTask(updatedAttachment.getTask());
-            return attachmentRepository.save(attachment);
+            attachment.setTask(managedTask(updatedAttachment.getTask()));
+            Attachment saved = attachmentRepository.save(attachment);
+            attachmentChanged(BoardEventType.ATTACHMENT_UPDATED, saved);
+            return saved;
         }
         throw new RuntimeException("Attachment not found");
     }
 
     //delete
+    @Transactional
     public void deleteAttachmentById(long id) {
-        attachmentRepository.deleteById(id);
+        attachmentRepository.findById(id).ifPresent(attachment -> {
+            attachmentChanged(BoardEventType.ATTACHMENT_DELETED, attachment);
+            attachmentRepository.delete(attachment);
+        });
     }
 
+    @Transactional
     public Attachment createAttachmentForTask(long taskId, Attachment attachment) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id " + taskId));
         attachment.setTask(task);
-        return attachmentRepository.save(attachment);
+        Attachment saved = attachmentRepository.save(attachment);
+        attachmentChanged(BoardEventType.ATTACHMENT_CREATED, saved);
+        return saved;
+    }
+
+    // Request bodies carry the task as a bare id; Hibernate rejects a detached task without its version
+    private Task managedTask(Task task) {
+        if (task == null || task.getId() == null) {
+            return null;
+        }
+        return taskRepository.findById(task.getId())
+                .orElseThrow(() -> new IllegalStateException("Task not found with id: " + task.getId()));
+    }
+
+    private void attachmentChanged(BoardEventType type, Attachment attachment) {
+        Task task = attachment.getTask();
+        if (task == null || task.getId() == null) {
+            return;
+        }
+        Long projectId = task.getProject() != null ? task.getProject().getId() : taskRepository.findProjectIdById(task.getId()).orElse(null);
+        if (projectId != null) {
+            eventPublisher.publishEvent(BoardChangedEvent.of(type, projectId, attachment.getId()));
+        }
     }
 
 
@@ -0,0 +1,67 @@
+package vector.TaskSync.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import vector.TaskSync.repositories.UserRepository;
+
+import java.util.function.LongPredicate;
+
+/**
+ * What the current caller may see, resolved once per request. The caller's team ids come from a
+ * single query on {@code user_teams} the first time a membership check is made; every later check
+ * in the same request is a set lookup.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class AuthorizationContext {
+
+    private final UserRepository userRepository;
+
+    private LongHashSet teamIds;
+    private Boolean teamLead;
+
+    public String email() {
+        return authentication().getName();
+    }
+
+    public boolean isTeamLead() {
+        if (teamLead == null) {
+            teamLead = authentication().getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_TEAM_LEAD"));
+        }
+        return teamLead;
+    }
+
+    public boolean isMemberOf(Long teamId) {
+        return teamId != null && teamIds().contains(teamId);
+    }
+
+    // Team leads see every team, everyone else only the teams they belong to
+    public boolean canSeeTeam(Long teamId) {
+        return isTeamLead() || isMemberOf(teamId);
+    }
+
+    // The same rule as canSeeTeam, for filtering many rows without boxing each team id
+    public LongPredicate visibleTeams() {
+        if (isTeamLead()) {
+            return teamId -> true;
+        }
+        LongHashSet teams = teamIds();
+        return teams::contains;
+    }
+
+    private LongHashSet teamIds() {
+        if (teamIds == null) {
+            teamIds = LongHashSet.of(userRepository.findTeamIdsByEmail(email()));
+        }
+        return teamIds;
+    }
+
+    private static Authentication authentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
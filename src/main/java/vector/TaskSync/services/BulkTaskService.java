@@ -0,0 +1,143 @@
+package vector.TaskSync.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.activity.ActivityEvent;
+import vector.TaskSync.boards.BoardChangedEvent;
+import vector.TaskSync.boards.BoardEventType;
+import vector.TaskSync.models.*;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.UserRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many tasks for one project in a single transaction. The project and all assignees are
+ * loaded once up front, and tasks are persisted in chunks of the JDBC batch size so inserts go out
+ * as batched statements while the persistence context stays small. Invalid items are reported by
+ * index and skipped; the rest are created.
+ */
+@Service
+public class BulkTaskService {
+
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxItems;
+
+    public BulkTaskService(ProjectRepository projectRepository,
+                           UserRepository userRepository,
+                           Validator validator,
+                           EntityManager entityManager,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                           @Value("${application.tasks.bulk.max-items:10000}") int maxItems) {
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    @Transactional
+    public BulkTaskResponse createTasks(Long projectId, List<BulkTaskItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalStateException("No tasks to create");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalStateException("At most " + maxItems + " tasks can be created per request");
+        }
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found with id: " + projectId));
+        Map<Long, User> assignees = loadAssignees(items);
+
+        List<BulkTaskResult> results = new ArrayList<>(items.size());
+        int[] createdByStatus = new int[TaskStatus.values().length];
+        List<Long> createdIds = new ArrayList<>(items.size());
+        List<ActivityEvent> activities = new ArrayList<>(items.size());
+        int created = 0;
+        for (int index = 0; index < items.size(); index++) {
+            BulkTaskItem item = items.get(index);
+            List<String> errors = validate(item, assignees);
+            if (!errors.isEmpty()) {
+                results.add(BulkTaskResult.failed(index, errors));
+                continue;
+            }
+            Task task = toTask(item, project, assignees);
+            entityManager.persist(task);
+            results.add(BulkTaskResult.created(index, task.getId()));
+            createdIds.add(task.getId());
+            activities.add(ActivityEvent.onTask(ActivityType.TASK_CREATED, task.getId(), null, task.getTitle()));
+            createdByStatus[task.getStatus().ordinal()]++;
+            if (++created % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        if (created > 0) {
+            projectRepository.adjustTaskCounts(projectId, created,
+                    createdByStatus[TaskStatus.TODO.ordinal()],
+                    createdByStatus[TaskStatus.IN_PROGRESS.ordinal()],
+                    createdByStatus[TaskStatus.DONE.ordinal()]);
+            eventPublisher.publishEvent(new TasksChangedEvent(createdIds));
+            eventPublisher.publishEvent(new BoardChangedEvent(BoardEventType.TASK_CREATED, projectId, createdIds));
+            activities.forEach(eventPublisher::publishEvent);
+        }
+        return new BulkTaskResponse(created, items.size() - created, results);
+    }
+
+    private Map<Long, User> loadAssignees(List<BulkTaskItem> items) {
+        Set<Long> ids = items.stream()
+                .filter(Objects::nonNull)
+                .map(BulkTaskItem::getAssigneeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+    }
+
+    private List<String> validate(BulkTaskItem item, Map<Long, User> assignees) {
+        if (item == null) {
+            return List.of("task must not be null");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<BulkTaskItem> violation : validator.validate(item)) {
+            errors.add(violation.getMessage());
+        }
+        if (item.getAssigneeId() != null && !assignees.containsKey(item.getAssigneeId())) {
+            errors.add("User not found with id: " + item.getAssigneeId());
+        }
+        return errors;
+    }
+
+    private static Task toTask(BulkTaskItem item, Project project, Map<Long, User> assignees) {
+        Task task = new Task();
+        task.setTitle(item.getTitle());
+        task.setDescription(item.getDescription());
+        task.setStatus(item.getStatus() != null ? item.getStatus() : TaskStatus.TODO);
+        task.setDueDate(item.getDueDate());
+        task.setProject(project);
+        task.setTeam(project.getTeam());
+        if (item.getAssigneeId() != null) {
+            task.setAssignee(assignees.get(item.getAssigneeId()));
+        }
+        return task;
+    }
+}
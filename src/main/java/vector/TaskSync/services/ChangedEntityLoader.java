@@ -0,0 +1,46 @@
+package vector.TaskSync.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import vector.TaskSync.models.AttachmentDTO;
+import vector.TaskSync.models.ChangedEntity;
+import vector.TaskSync.models.CommentDTO;
+import vector.TaskSync.models.TaskDTO;
+import vector.TaskSync.repositories.AttachmentRepository;
+import vector.TaskSync.repositories.CommentRepository;
+import vector.TaskSync.repositories.TaskRepository;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Current state of changed tasks, comments and attachments as DTOs, one query per entity type.
+ * Ids missing from the result were deleted. Callers provide the transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangedEntityLoader {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final AttachmentRepository attachmentRepository;
+
+    public Map<ChangedEntity, Map<Long, Object>> load(Map<ChangedEntity, Set<Long>> ids) {
+        Map<ChangedEntity, Map<Long, Object>> loaded = new EnumMap<>(ChangedEntity.class);
+        ids.forEach((entity, entityIds) -> {
+            if (!entityIds.isEmpty()) {
+                loaded.put(entity, switch (entity) {
+                    case TASK -> byId(taskRepository.findDtosByIdIn(entityIds), TaskDTO::getId);
+                    case COMMENT -> byId(commentRepository.findDtosByIdIn(entityIds), CommentDTO::getId);
+                    case ATTACHMENT -> byId(attachmentRepository.findDtosByIdIn(entityIds), AttachmentDTO::getId);
+                });
+            }
+        });
+        return loaded;
+    }
+
+    private static <T> Map<Long, Object> byId(List<T> rows, Function<T, Long> id) {
+        return rows.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+}
@@ -2,17 +2,28 @@ package vector.TaskSync.services;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import vector.TaskSync.activity.ActivityEvent;
+import vector.TaskSync.boards.BoardChangedEvent;
+import vector.TaskSync.boards.BoardEventType;
+import vector.TaskSync.models.ActivityType;
 import vector.TaskSync.models.Comment;
 import vector.TaskSync.models.Task;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.KeysetSpecifications;
 import vector.TaskSync.repositories.CommentRepository;
 import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.specifications.CommentSpecifications;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,57 +36,121 @@ public class CommentService {
 
     private final TaskRepository taskRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     //create
+    @Transactional
     public Comment saveComment(Comment comment) {
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        taskChanged(saved.getTask());
+        commentChanged(BoardEventType.COMMENT_CREATED, saved);
+        commentActivity(ActivityType.COMMENT_ADDED, saved);
+        return saved;
     }
 
     //findAll
-    public List<Comment> getAllComments() {
-        return commentRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> getAllComments(Specification<Comment> visibility, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Specification<Comment> filter = after == null ? visibility : visibility.and(KeysetSpecifications.createdAfter(after));
+        List<Comment> rows = commentRepository.findBy(filter, query -> query
+                .sortBy(KeysetSpecifications.BY_CREATED_DATE)
+                .limit(size + 1)
+                .all());
+        return CursorPage.of(rows, size, comment -> Cursor.of(comment.getCreatedDate(), comment.getId()));
     }
 
     //findbyid
+    @Transactional(readOnly = true)
     public Optional<Comment> getCommentById(Long id) {
         return commentRepository.findById(id);
     }
 
     //update
+    @Transactional
     public Comment updateComment(Long id,Comment updatedComment) {
         Optional<Comment> commentOptional = commentRepository.findById(id);
         if (commentOptional.isPresent()) {
             Comment comment = commentOptional.get();
+            taskChanged(comment.getTask());
             comment.setId(updatedComment.getId());
             comment.setAuthor(updatedComment.getAuthor());
             comment.setTask(updatedComment.getTask());
             comment.setContent(updatedComment.getContent());
             comment.setCreatedAt(updatedComment.getCreatedAt());
-            return commentRepository.save(comment);
+            Comment saved = commentRepository.save(comment);
+            taskChanged(saved.getTask());
+            commentChanged(BoardEventType.COMMENT_UPDATED, saved);
+            commentActivity(ActivityType.COMMENT_EDITED, saved);
+            return saved;
         }
         throw new RuntimeException("Comment not found");
 
     }
 
     //delete
+    @Transactional
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            taskChanged(comment.getTask());
+            commentChanged(BoardEventType.COMMENT_DELETED, comment);
+            commentActivity(ActivityType.COMMENT_DELETED, comment);
+            commentRepository.delete(comment);
+        });
 
 
     }
 
+    @Transactional
     public Comment createCommentForTask(Long taskId, Comment comment) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId ));
         comment.setTask(task);
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        eventPublisher.publishEvent(TasksChangedEvent.of(taskId));
+        commentChanged(BoardEventType.COMMENT_CREATED, saved);
+        commentActivity(ActivityType.COMMENT_ADDED, saved);
+        return saved;
     }
 
 
 
-    public List<Comment> getCommentsByTask(Long taskId) {
-        return commentRepository.findByTaskId(taskId);
+    @Transactional(readOnly = true)
+    public List<Comment> getCommentsByTask(Long taskId, Specification<Comment> visibility) {
+        return commentRepository.findAll(CommentSpecifications.onTask(taskId).and(visibility));
+    }
+
+    // Comments are searched as part of their task, so the task is re-indexed
+    private void taskChanged(Task task) {
+        if (task != null && task.getId() != null) {
+            eventPublisher.publishEvent(TasksChangedEvent.of(task.getId()));
+        }
+    }
+
+    private void commentChanged(BoardEventType type, Comment comment) {
+        Task task = comment.getTask();
+        if (task == null || task.getId() == null) {
+            return;
+        }
+        // A task given by id only has no project loaded
+        Long projectId = task.getProject() != null ? task.getProject().getId() : taskRepository.findProjectIdById(task.getId()).orElse(null);
+        if (projectId != null) {
+            eventPublisher.publishEvent(BoardChangedEvent.of(type, projectId, comment.getId()));
+        }
+    }
+
+    // Logged against the comment's task; the comment itself is referenced by id
+    private void commentActivity(ActivityType type, Comment comment) {
+        Task task = comment.getTask();
+        if (task != null && task.getId() != null) {
+            Long commentId = comment.getId();
+            eventPublisher.publishEvent(type == ActivityType.COMMENT_DELETED
+                    ? ActivityEvent.onTask(type, task.getId(), commentId, null)
+                    : ActivityEvent.onTask(type, task.getId(), null, commentId));
+        }
     }
 
+    @Transactional(readOnly = true)
     public boolean isCommentAuthor(Long commentId, String email) {
         return getCommentById(commentId)
                 .map(comment -> comment.getAuthor() != null && comment.getAuthor().getEmail().equals(email))
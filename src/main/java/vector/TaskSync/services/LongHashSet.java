@@ -0,0 +1,77 @@
+package vector.TaskSync.services;
+
+import java.util.Collection;
+
+/**
+ * Open-addressing set of primitive longs, so membership checks neither box nor chase pointers.
+ * Zero is used as the empty-slot marker and tracked separately.
+ */
+public final class LongHashSet {
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        slots = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public static LongHashSet of(Collection<Long> values) {
+        LongHashSet set = new LongHashSet(values.size());
+        values.forEach(set::add);
+        return set;
+    }
+
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        int index = indexOf(value);
+        if (slots[index] == value) {
+            return false;
+        }
+        slots[index] = value;
+        if (++size * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return value == 0 ? containsZero : slots[indexOf(value)] == value;
+    }
+
+    public int size() {
+        return size + (containsZero ? 1 : 0);
+    }
+
+    // Slot holding the value, or the empty slot where it would go
+    private int indexOf(long value) {
+        int index = mix(value) & mask;
+        while (slots[index] != 0 && slots[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        mask = slots.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                slots[indexOf(value)] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
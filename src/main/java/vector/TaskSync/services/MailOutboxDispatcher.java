@@ -0,0 +1,154 @@
+package vector.TaskSync.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.models.MailOutbox;
+import vector.TaskSync.models.MailStatus;
+import vector.TaskSync.repositories.MailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the mail outbox in batches. Each batch is handed to {@link JavaMailSender#send(SimpleMailMessage...)},
+ * which delivers all of it over a single SMTP connection. Failed rows are retried with exponential
+ * backoff and marked {@link MailStatus#DEAD} once they run out of attempts.
+ * <p>
+ * No transaction or row lock is held while talking to the mail server. A short transaction claims
+ * the batch by pushing its next attempt out by the lease, so other dispatchers skip it; a second
+ * one records the outcome. Rows of a dispatcher that dies mid-send become due again once the
+ * lease runs out and are sent again.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration lease;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                JavaMailSender mailSender,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${spring.mail.from}") String fromEmail,
+                                @Value("${application.mail.outbox.batch-size:50}") int batchSize,
+                                @Value("${application.mail.outbox.max-attempts:5}") int maxAttempts,
+                                @Value("${application.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                @Value("${application.mail.outbox.lease:5m}") Duration lease) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fromEmail = fromEmail;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.poll-interval:5000}")
+    public int dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> batch = transactionTemplate.execute(status -> claim(now));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        SimpleMailMessage[] messages = batch.stream().map(this::toMessage).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures = Map.of();
+        MailException connectionFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            // No per-message failures means the connection itself could not be used
+            if (failures.isEmpty()) {
+                connectionFailure = e;
+            }
+        } catch (MailException e) {
+            connectionFailure = e;
+        }
+
+        Map<Long, Exception> results = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            results.put(batch.get(i).getId(), connectionFailure != null ? connectionFailure : failures.get(messages[i]));
+        }
+        int sent = transactionTemplate.execute(status -> record(results, LocalDateTime.now()));
+        logger.info("Mail outbox batch: {} sent, {} failed", sent, batch.size() - sent);
+        return sent;
+    }
+
+    // SKIP LOCKED keeps concurrent claims apart; the lease keeps the rows apart after this commits
+    private List<MailOutbox> claim(LocalDateTime now) {
+        List<MailOutbox> batch = mailOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                MailStatus.PENDING, now, Limit.of(batchSize));
+        batch.forEach(mail -> mail.setNextAttemptAt(now.plus(lease)));
+        mailOutboxRepository.saveAll(batch);
+        return batch;
+    }
+
+    private int record(Map<Long, Exception> results, LocalDateTime now) {
+        List<MailOutbox> batch = mailOutboxRepository.findAllById(results.keySet());
+        int sent = 0;
+        for (MailOutbox mail : batch) {
+            Exception failure = results.get(mail.getId());
+            if (failure == null) {
+                mail.setStatus(MailStatus.SENT);
+                mail.setSentDate(now);
+                mail.setLastError(null);
+                sent++;
+            } else {
+                scheduleRetry(mail, failure, now);
+            }
+        }
+        mailOutboxRepository.saveAll(batch);
+        return sent;
+    }
+
+    private void scheduleRetry(MailOutbox mail, Exception failure, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            mail.setStatus(MailStatus.DEAD);
+            logger.warn("Mail {} to {} dead-lettered after {} attempts: {}", mail.getId(), mail.getRecipient(), attempts, failure.getMessage());
+        } else {
+            mail.setNextAttemptAt(now.plus(initialBackoff.multipliedBy(1L << (attempts - 1))));
+            logger.debug("Mail {} to {} failed, retry {} at {}", mail.getId(), mail.getRecipient(), attempts, mail.getNextAttemptAt());
+        }
+    }
+
+    private SimpleMailMessage toMessage(MailOutbox mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getBody());
+        return message;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,33 @@
+package vector.TaskSync.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.models.MailOutbox;
+import vector.TaskSync.models.MailStatus;
+import vector.TaskSync.repositories.MailOutboxRepository;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class MailOutboxService {
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    // Joins the caller's transaction so the mail is only queued if the surrounding change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public MailOutbox enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        return mailOutboxRepository.save(MailOutbox.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .status(MailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdDate(now)
+                .build());
+    }
+}
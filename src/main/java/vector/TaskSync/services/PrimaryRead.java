@@ -0,0 +1,19 @@
+package vector.TaskSync.services;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A read that runs in a read-write transaction so it is served by the primary. Used for the
+ * single-row lookups of cached reference data: read-only transactions may go to a replica and do
+ * not fill the second-level cache, while these loads keep it filled with current rows.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Transactional
+public @interface PrimaryRead {
+}
@@ -0,0 +1,36 @@
+package vector.TaskSync.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.repositories.ProjectRepository;
+
+/**
+ * Rebuilds every project's task counters and progress from the task table. Only needed once after
+ * the counters are introduced, or if they are ever suspected to have drifted; enable it with
+ * {@code application.projects.reconcile-counters=true} for a single start-up.
+ */
+@Component
+@ConditionalOnProperty(name = "application.projects.reconcile-counters", havingValue = "true")
+public class ProjectCounterReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectCounterReconciler.class);
+
+    private final ProjectRepository projectRepository;
+
+    public ProjectCounterReconciler(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcile() {
+        int projects = projectRepository.recountTasks();
+        projectRepository.recomputeProgress();
+        logger.info("Reconciled task counters for {} projects", projects);
+    }
+}
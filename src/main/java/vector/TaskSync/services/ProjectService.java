@@ -1,12 +1,15 @@
 package vector.TaskSync.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.conditional.ListStamp;
 import vector.TaskSync.models.*;
 import vector.TaskSync.repositories.ProjectRepository;
-import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.repositories.TeamRepository;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,15 +19,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProjectService {
     private final ProjectRepository projectRepository;
-    private final TaskRepository taskRepository;
+    private final TeamRepository teamRepository;
 
+    @Transactional(readOnly = true)
     public List<Project> getAllProjects() {
         return projectRepository.findAll();
     }
+    @Transactional
     public Project createProject(Project project) {
+        // Bind the stored team, not the bare {"id": ...} from the body, which has no version to save with
+        if (project.getTeam() != null) {
+            project.setTeam(project.getTeam().getId() == null ? null : teamRepository.findById(project.getTeam().getId())
+                    .orElseThrow(() -> new IllegalStateException("Team not found with id: " + project.getTeam().getId())));
+        }
         return projectRepository.save(project);
     }
 
+    @PrimaryRead
     public List<UserDTO> getProjectMembers(Long projectId) {
         Project project = projectRepository.findById(projectId).orElseThrow( () -> new IllegalArgumentException("Project not found with id"  + projectId));
         return project.getTeam().getMembers().stream()
@@ -42,6 +53,7 @@ public class ProjectService {
                 .build();
     }
 
+    @PrimaryRead
     public Project getProjectById(Long projectId) {
 //        Project project = projectRepository.findByIdWithTeam(projectId).orElse(null);
          Project project = projectRepository.findById(projectId).orElseThrow(() -> new RuntimeException("Project not found"));
@@ -61,33 +73,38 @@ public class ProjectService {
 //        return isTeamMember ? project : null;
     }
 
+    @Transactional
     public Project updateProject(Long id, Project project) {
         Optional <Project> projectOptional = projectRepository.findById(id);
         if (projectOptional.isPresent()) {
             Project project1= projectOptional.get();
+            if (project.getVersion() != null && !project.getVersion().equals(project1.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Project.class, id);
+            }
             project1.setName(project.getName());
             project1.setDescription(project.getDescription());
             project1.setCreatedBy(project.getCreatedBy());
-            return projectRepository.save(project);
+            return projectRepository.save(project1);
 
         }
     throw new RuntimeException("Project not found");
 
     }
 
+    @Transactional
     public void deleteProject(Long id) {
         projectRepository.deleteById(id);
 
     }
+    @Transactional(readOnly = true)
+    public ListStamp getProjectsByTeamStamp(Long teamId) {
+        return projectRepository.findListStampByTeamId(teamId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Project> getProjectsByTeam(Long teamId) {
-        List<Project> projects = projectRepository.findByTeamId(teamId);
-        projects.forEach(project -> {
-            List<Task> tasks = taskRepository.findByProjectId(project.getId());
-            long totalTasks = tasks.size();
-            long doneTasks = tasks.stream().filter(t -> t.getStatus() == TaskStatus.DONE).count();
-            project.setProgress(totalTasks > 0 ? (int) ((doneTasks * 100) / totalTasks) : 0);
-        });
-        return projects;
+        // Progress is kept up to date by the task counters, so no task rows are read here
+        return projectRepository.findByTeamId(teamId);
     }
 
 
@@ -0,0 +1,125 @@
+package vector.TaskSync.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.models.Task;
+import vector.TaskSync.models.TaskDTO;
+import vector.TaskSync.models.TaskFilter;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.OffsetCursor;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.specifications.TaskSpecifications;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Filtered, sorted task listings. The filters and the caller's visibility become one
+ * Specification; a first query selects only the ids of one page, in order, so the planner can
+ * answer it from the composite task indexes, and a second query projects those rows into DTOs by
+ * primary key. Any sort order is allowed, so pages are addressed by an {@link OffsetCursor}, and the
+ * offset is capped to keep every query bounded.
+ */
+@Service
+public class TaskQueryService {
+
+    static final int MAX_SORT_KEYS = 3;
+    // Sortable properties by the name clients use
+    private static final Set<String> SORTABLE = Set.of("dueDate", "createdDate", "lastModifiedDate", "status", "title");
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final int maxOffset;
+
+    public TaskQueryService(TaskRepository taskRepository,
+                            EntityManager entityManager,
+                            @Value("${application.tasks.query.max-offset:10000}") int maxOffset) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.maxOffset = maxOffset;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> findTasks(TaskFilter filter, Specification<Task> visibility, List<String> sortKeys,
+                                         String cursor, int size) {
+        if (filter.dueFrom() != null && filter.dueTo() != null && filter.dueFrom().isAfter(filter.dueTo())) {
+            throw new IllegalStateException("dueFrom must not be after dueTo");
+        }
+        Sort sort = parseSort(sortKeys);
+        int offset = offsetOf(cursor);
+        if (offset > maxOffset) {
+            throw new IllegalStateException("Results past the first " + maxOffset + " are not available; narrow the filters instead");
+        }
+
+        List<Long> ids = findIds(TaskSpecifications.matching(filter).and(visibility), sort, offset, size + 1);
+        if (ids.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        Map<Long, TaskDTO> tasks = taskRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+        List<TaskDTO> rows = ids.stream().map(tasks::get).filter(Objects::nonNull).toList();
+        return CursorPage.atOffset(rows, size, offset);
+    }
+
+    private List<Long> findIds(Specification<Task> specification, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id")).orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Keys such as {@code -dueDate} (descending) or {@code createdDate}, most significant first.
+     * The id always breaks the remaining ties, so the order is total and pages do not overlap.
+     */
+    static Sort parseSort(List<String> sortKeys) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        if (sortKeys != null) {
+            for (String key : sortKeys) {
+                if (key == null || key.isBlank()) {
+                    continue;
+                }
+                boolean descending = key.startsWith("-");
+                String property = descending ? key.substring(1) : key;
+                if (!SORTABLE.contains(property)) {
+                    throw new IllegalStateException("Tasks cannot be sorted by " + property + "; use one of " + new TreeSet<>(SORTABLE));
+                }
+                if (seen.add(property)) {
+                    orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+                }
+            }
+        }
+        if (orders.size() > MAX_SORT_KEYS) {
+            throw new IllegalStateException("At most " + MAX_SORT_KEYS + " sort keys are supported");
+        }
+        if (orders.isEmpty()) {
+            orders.add(Sort.Order.asc("createdDate"));
+        }
+        orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    private static int offsetOf(String cursor) {
+        OffsetCursor after = OffsetCursor.decode(cursor);
+        return after == null ? 0 : after.offset();
+    }
+}
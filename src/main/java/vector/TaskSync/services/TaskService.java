@@ -1,16 +1,27 @@
 package vector.TaskSync.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.activity.ActivityEvent;
+import vector.TaskSync.boards.BoardChangedEvent;
+import vector.TaskSync.boards.BoardEventType;
+import vector.TaskSync.conditional.ListStamp;
 import vector.TaskSync.models.*;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.repositories.ActivityRepository;
 import vector.TaskSync.repositories.ProjectRepository;
 import vector.TaskSync.repositories.TaskRepository;
 import vector.TaskSync.repositories.TeamRepository;
 import vector.TaskSync.repositories.UserRepository;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,8 +31,11 @@ public class TaskService {
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final TeamRepository teamRepository;
+    private final ActivityRepository activityRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Create task
+    @Transactional
     public Task createTask(Long projectId, Task task) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found with id: " + projectId));
@@ -34,30 +48,69 @@ public class TaskService {
         }
 
         task.setProject(project);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        countTask(projectId, null, saved.getStatus());
+        eventPublisher.publishEvent(TasksChangedEvent.of(saved.getId()));
+        eventPublisher.publishEvent(BoardChangedEvent.of(BoardEventType.TASK_CREATED, projectId, saved.getId()));
+        eventPublisher.publishEvent(ActivityEvent.onTask(ActivityType.TASK_CREATED, saved.getId(), null, saved.getTitle()));
+        return saved;
     }
 
-    // Read all
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    // Read all, one keyset page at a time
+    @Transactional(readOnly = true)
+    public CursorPage<Task> getAllTasks(String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        List<Task> rows = after == null
+                ? taskRepository.findPage(Limit.of(size + 1))
+                : taskRepository.findPageAfter(after.dateKey(), after.id(), Limit.of(size + 1));
+        return CursorPage.of(rows, size, task -> Cursor.of(task.getCreatedDate(), task.getId()));
     }
 
     // Read (by id)
+    @Transactional(readOnly = true)
     public Optional<TaskDTO> getTaskById(Long id) {
-        return taskRepository.findById(id).map(this::toDTO);
+        return taskRepository.findDtoById(id);
     }
 
-    // Read tasks by project
-    public List<TaskDTO> getTasksByProject(Long projectId) {
-        return taskRepository.getTasksByProjectId(projectId).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    // Read tasks by project, projected straight into DTOs one keyset page at a time
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> getTasksByProject(Long projectId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        List<TaskDTO> rows = after == null
+                ? taskRepository.findDtoPageByProjectId(projectId, Limit.of(size + 1))
+                : taskRepository.findDtoPageByProjectIdAfter(projectId, after.dateKey(), after.id(), Limit.of(size + 1));
+        return CursorPage.of(rows, size, task -> Cursor.of(task.getCreatedDate(), task.getId()));
+    }
+
+    // Validators for the project's task listing, read without loading the tasks
+    @Transactional(readOnly = true)
+    public ListStamp getTasksByProjectStamp(Long projectId) {
+        return taskRepository.findListStampByProjectId(projectId);
+    }
+
+    // History of the task, newest first, one keyset page at a time. Written behind, so the latest
+    // changes can take a moment to show up.
+    @Transactional(readOnly = true)
+    public CursorPage<Activity> getTaskActivity(Long taskId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        List<Activity> rows = after == null
+                ? activityRepository.findByTaskIdOrderByIdDesc(taskId, Limit.of(size + 1))
+                : activityRepository.findByTaskIdAndIdLessThanOrderByIdDesc(taskId, after.id(), Limit.of(size + 1));
+        return CursorPage.of(rows, size, activity -> Cursor.of(activity.getOccurredAt(), activity.getId()));
     }
 
     // Update
+    @Transactional
     public Task updateTask(Long taskId, Task task) {
         Task existingTask = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
+        // The client edited an older copy; applying it would overwrite whatever changed since
+        if (task.getVersion() != null && !task.getVersion().equals(existingTask.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, taskId);
+        }
+        String previousTitle = existingTask.getTitle();
+        TaskStatus previousStatus = existingTask.getStatus();
+        Long previousAssigneeId = assigneeId(existingTask);
         existingTask.setTitle(task.getTitle());
         existingTask.setStatus(task.getStatus());
         if (task.getAssignee() != null && task.getAssignee().getId() != null) {
@@ -67,15 +120,37 @@ public class TaskService {
             existingTask.setAssignee(null);
         }
         existingTask.setTeam(task.getTeam());
-        return taskRepository.save(existingTask);
+        Task saved = taskRepository.save(existingTask);
+        countTask(saved.getProject().getId(), previousStatus, saved.getStatus());
+        eventPublisher.publishEvent(TasksChangedEvent.of(taskId));
+        eventPublisher.publishEvent(BoardChangedEvent.of(BoardEventType.TASK_UPDATED, saved.getProject().getId(), taskId));
+        // One entry per field that actually changed
+        if (!Objects.equals(previousTitle, saved.getTitle())) {
+            eventPublisher.publishEvent(ActivityEvent.onTask(ActivityType.TASK_RENAMED, taskId, previousTitle, saved.getTitle()));
+        }
+        if (previousStatus != saved.getStatus()) {
+            eventPublisher.publishEvent(ActivityEvent.onTask(ActivityType.TASK_STATUS_CHANGED, taskId, previousStatus, saved.getStatus()));
+        }
+        if (!Objects.equals(previousAssigneeId, assigneeId(saved))) {
+            eventPublisher.publishEvent(ActivityEvent.onTask(ActivityType.TASK_ASSIGNED, taskId, previousAssigneeId, assigneeId(saved)));
+        }
+        return saved;
     }
 
     // Delete
+    @Transactional
     public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(task -> {
+            taskRepository.delete(task);
+            countTask(task.getProject().getId(), task.getStatus(), null);
+            eventPublisher.publishEvent(TasksChangedEvent.of(id));
+            eventPublisher.publishEvent(BoardChangedEvent.of(BoardEventType.TASK_DELETED, task.getProject().getId(), id));
+            eventPublisher.publishEvent(ActivityEvent.onTask(ActivityType.TASK_DELETED, id, task.getTitle(), null));
+        });
     }
 
     // Assign task
+    @Transactional
     public Task assignTask(Long taskId, Long userId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
@@ -86,37 +161,33 @@ public class TaskService {
         if (task.getTeam() != null && !task.getTeam().getMembers().contains(user)) {
             throw new IllegalStateException("User is not in the task's team");
         }
+        Long previousAssigneeId = assigneeId(task);
         task.setAssignee(user);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TasksChangedEvent.of(taskId));
+        eventPublisher.publishEvent(BoardChangedEvent.of(BoardEventType.TASK_ASSIGNED, saved.getProject().getId(), taskId));
+        if (!Objects.equals(previousAssigneeId, userId)) {
+            eventPublisher.publishEvent(ActivityEvent.onTask(ActivityType.TASK_ASSIGNED, taskId, previousAssigneeId, userId));
+        }
+        return saved;
     }
 
-    // Map Task to TaskDTO
-    private TaskDTO toDTO(Task task) {
-        TaskDTO dto = new TaskDTO();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setStatus(task.getStatus());
-        dto.setDueDate(task.getDueDate());
-        dto.setTeam(task.getTeam());
-
-        if (task.getProject() != null) {
-            ProjectDTO projectDTO = new ProjectDTO();
-            projectDTO.setId(task.getProject().getId());
-            projectDTO.setName(task.getProject().getName());
-            dto.setProject(projectDTO);
+    // Moves one task between the project's counters; a null status means the task did not exist on that side
+    private void countTask(Long projectId, TaskStatus from, TaskStatus to) {
+        int total = (to != null ? 1 : 0) - (from != null ? 1 : 0);
+        int todo = delta(TaskStatus.TODO, from, to);
+        int inProgress = delta(TaskStatus.IN_PROGRESS, from, to);
+        int done = delta(TaskStatus.DONE, from, to);
+        if (total != 0 || todo != 0 || inProgress != 0 || done != 0) {
+            projectRepository.adjustTaskCounts(projectId, total, todo, inProgress, done);
         }
+    }
 
-        if (task.getAssignee() != null) {
-            UserDTO userDTO = new UserDTO();
-            userDTO.setId(task.getAssignee().getId());
-            userDTO.setFirstName(task.getAssignee().getFirstName());
-            userDTO.setLastName(task.getAssignee().getLastName());
-            userDTO.setEmail(task.getAssignee().getEmail());
-            userDTO.setRole(task.getAssignee().getRole().toString()); // Assuming User has a getRole method
-            dto.setAssignee(userDTO);
-        }
+    private static Long assigneeId(Task task) {
+        return task.getAssignee() != null ? task.getAssignee().getId() : null;
+    }
 
-        return dto;
+    private static int delta(TaskStatus status, TaskStatus from, TaskStatus to) {
+        return (to == status ? 1 : 0) - (from == status ? 1 : 0);
     }
-}
\ No newline at end of file
+}
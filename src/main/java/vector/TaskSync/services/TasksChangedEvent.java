@@ -0,0 +1,15 @@
+package vector.TaskSync.services;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when the text or placement of tasks changes: the task itself was created, edited or
+ * deleted, or one of its comments was. Listeners react after the transaction commits.
+ */
+public record TasksChangedEvent(Collection<Long> taskIds) {
+
+    public static TasksChangedEvent of(Long taskId) {
+        return new TasksChangedEvent(List.of(taskId));
+    }
+}
@@ -2,34 +2,41 @@ package vector.TaskSync.services;
 
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import vector.TaskSync.repositories.TeamRepository;
+import vector.TaskSync.repositories.AttachmentRepository;
+import vector.TaskSync.repositories.ProjectRepository;
 import vector.TaskSync.repositories.TaskRepository;
-import vector.TaskSync.models.Task;
 
 @Service
 @RequiredArgsConstructor
 public class TeamAccessService {
 
-    private final TeamRepository teamRepository;
+    private final AuthorizationContext authorizationContext;
     private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final AttachmentRepository attachmentRepository;
 
     public boolean isUserInTeam(Long teamId) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return teamRepository.findById(teamId)
-                .map(team -> team.getMembers().stream()
-                        .anyMatch(user -> user.getEmail().equals(email)))
-                .orElse(false);
+        return authorizationContext.isMemberOf(teamId);
     }
 
     public boolean isUserInProject(Long taskId) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return taskRepository.findById(taskId)
-                .map(task -> task.getProject().getTeam().getMembers().stream()
-                        .anyMatch(user -> user.getEmail().equals(email)))
+        return taskRepository.findProjectTeamIdById(taskId)
+                .map(authorizationContext::isMemberOf)
                 .orElse(false);
     }
 
-}
+    public boolean isUserInProjectTeam(Long projectId) {
+        return projectRepository.findTeamIdById(projectId)
+                .map(authorizationContext::isMemberOf)
+                .orElse(false);
+    }
 
+    // Same rule as tasks: an attachment whose project has no team, or that does not exist, is denied
+    public boolean canAccessAttachment(Long attachmentId) {
+        return attachmentRepository.findProjectTeamIdById(attachmentId)
+                .map(authorizationContext::isMemberOf)
+                .orElse(false);
+    }
+
+}
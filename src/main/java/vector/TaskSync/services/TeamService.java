@@ -2,13 +2,26 @@ package vector.TaskSync.services;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.activity.ActivityEvent;
+import vector.TaskSync.conditional.ListStamp;
+import vector.TaskSync.models.ActivityType;
 import vector.TaskSync.models.Team;
 import vector.TaskSync.models.User;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.KeysetSpecifications;
 import vector.TaskSync.repositories.TeamRepository;
 import vector.TaskSync.repositories.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -17,45 +30,85 @@ public class TeamService {
 
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
 
     //create
+    @Transactional
     public Team save(Team team) {
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        eventPublisher.publishEvent(ActivityEvent.onTeam(ActivityType.TEAM_CREATED, saved.getId(), null, saved.getName()));
+        return saved;
     }
 
     //find all
-    public List<Team> findAllTeams() {
-        return teamRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Team> findAllTeams(Specification<Team> visibility, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Specification<Team> filter = after == null ? visibility : visibility.and(KeysetSpecifications.createdAfter(after));
+        List<Team> rows = teamRepository.findBy(filter, query -> query
+                .sortBy(KeysetSpecifications.BY_CREATED_DATE)
+                .limit(size + 1)
+                .all());
+        return CursorPage.of(rows, size, team -> Cursor.of(team.getCreatedDate(), team.getId()));
+    }
+
+    // Validators for the visible teams; membership changes touch the team, so they are covered too
+    @Transactional(readOnly = true)
+    public ListStamp findAllTeamsStamp(Specification<Team> visibility) {
+        long count = teamRepository.count(visibility);
+        LocalDateTime latest = teamRepository.findBy(visibility, query -> query
+                        .sortBy(Sort.by(Sort.Direction.DESC, "lastModifiedDate"))
+                        .first())
+                .map(Team::getLastModifiedDate)
+                .orElse(null);
+        return new ListStamp(count, latest);
     }
 
     //find by id
+    @PrimaryRead
     public Optional<Team> findTeamById(Long teamId) {
         return teamRepository.findById(teamId);
     }
 
     //update
+    @Transactional
     public Team updateTeam(Long id,Team team) {
         Optional<Team> optionalTeam = teamRepository.findById(id);
         if (optionalTeam.isPresent()) {
             Team updatedTeam = optionalTeam.get();
+            if (team.getVersion() != null && !team.getVersion().equals(updatedTeam.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Team.class, id);
+            }
+            String previousName = updatedTeam.getName();
             updatedTeam.setName(team.getName());
             updatedTeam.setId(team.getId());
             updatedTeam.setMembers(team.getMembers());
             updatedTeam.setTasks(team.getTasks());
 
-            return teamRepository.save(updatedTeam);
+            Team saved = teamRepository.save(updatedTeam);
+            if (!Objects.equals(previousName, saved.getName())) {
+                eventPublisher.publishEvent(ActivityEvent.onTeam(ActivityType.TEAM_RENAMED, id, previousName, saved.getName()));
+            }
+            return saved;
 
         }
         throw new RuntimeException("Team not found");
     }
 
     //delete
+    @Transactional
     public void deleteTeam(Long id) {
-        teamRepository.deleteById(id);
+        teamRepository.findById(id).ifPresent(team -> {
+            teamRepository.delete(team);
+            eventPublisher.publishEvent(ActivityEvent.onTeam(ActivityType.TEAM_DELETED, id, team.getName(), null));
+        });
     }
 
+    // Both sides of the association change in one transaction, so Hibernate invalidates the cached Team.members on commit.
+    // The user side owns the association, so the team is touched to bump its version and make concurrent changes conflict.
+    @Transactional
     public Team addMember (Long teamId, Long userId) {
         Team team = teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found with id: " +teamId));
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -65,11 +118,14 @@ public class TeamService {
 
         team.getMembers().add(user);
         user.getTeams().add(team);
+        team.setLastModifiedDate(LocalDateTime.now());
         teamRepository.save(team);
         userRepository.save(user);
+        eventPublisher.publishEvent(ActivityEvent.onTeam(ActivityType.TEAM_MEMBER_ADDED, teamId, null, userId));
         return team;
     }
 
+    @Transactional
     public Team removeMember (Long teamId, Long userId) {
         Team team = teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found with id: " +teamId));
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -79,8 +135,10 @@ public class TeamService {
 
         team.getMembers().remove(user);
         user.getTeams().remove(team);
+        team.setLastModifiedDate(LocalDateTime.now());
         teamRepository.save(team);
         userRepository.save(user);
+        eventPublisher.publishEvent(ActivityEvent.onTeam(ActivityType.TEAM_MEMBER_REMOVED, teamId, userId, null));
         return team;
     }
 }
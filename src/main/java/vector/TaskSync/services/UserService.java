@@ -1,15 +1,32 @@
 package vector.TaskSync.services;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.config.PasswordHashingService;
+import vector.TaskSync.config.SecondLevelCacheConfig;
+import vector.TaskSync.config.UserCache;
 import vector.TaskSync.models.ChangePasswordRequest;
+import vector.TaskSync.models.Team;
 import vector.TaskSync.models.User;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
 import vector.TaskSync.repositories.UserRepository;
 
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -18,35 +35,63 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordHashingService passwordHashingService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
 
     public void changePassword(ChangePasswordRequest request, Principal connectedUser) {
-        var user = (User) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal();
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
-            throw new IllegalStateException("Wrong password");
-        }
         if (!request.getNewPassword().equals(request.getConfirmationPassword())) {
             throw new IllegalStateException("Passwords do not match");
         }
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        // The principal may be built from token claims only, so load the full user; findByEmail reads the primary
+        var user = userRepository.findByEmail(connectedUser.getName())
+                .orElseThrow(() -> new IllegalStateException("User not found"));
+        // Both hashes run before the write transaction opens, so a slow or queued hash never holds a connection
+        if (!passwordHashingService.run(() -> passwordEncoder.matches(request.getCurrentPassword(), user.getPassword()))) {
+            throw new IllegalStateException("Wrong password");
+        }
+        String encoded = passwordHashingService.encode(request.getNewPassword());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User current = userRepository.findById(user.getId())
+                    .orElseThrow(() -> new IllegalStateException("User not found"));
+            // The current password was checked against this hash; don't overwrite a change made meanwhile
+            if (!Objects.equals(current.getPassword(), user.getPassword())) {
+                throw new IllegalStateException("Password was changed concurrently");
+            }
+            current.setPassword(encoded);
+        });
+        userCache.invalidate(user.getEmail());
     }
 
+    @Transactional
     public User createUser(User newUser) {
-        return userRepository.save(newUser);
+        User saved = userRepository.save(newUser);
+        afterCommit(() -> evictTeamMembers(saved.getTeams()));
+        return saved;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<User> getAllUsers(String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        List<User> rows = after == null
+                ? userRepository.findPage(Limit.of(size + 1))
+                : userRepository.findPageAfter(after.key(), after.id(), Limit.of(size + 1));
+        return CursorPage.of(rows, size, user -> Cursor.of(user.getEmail(), user.getId()));
     }
 
+    @PrimaryRead
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    @Transactional
     public User updateUser(Long id, User updatedUser) {
         Optional<User> existingUser = userRepository.findById(id);
         if (existingUser.isPresent()) {
             User user = existingUser.get();
+            List<Team> previousTeams = user.getTeams() == null ? List.of() : new ArrayList<>(user.getTeams());
+            String previousEmail = user.getEmail();
             user.setId(updatedUser.getId());
             user.setFirstName(updatedUser.getFirstName());
             user.setLastName(updatedUser.getLastName());
@@ -55,16 +100,58 @@ public class UserService {
             user.setRole(updatedUser.getRole());
             user.setGender(updatedUser.getGender());
             user.setTeams(updatedUser.getTeams());
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            afterCommit(() -> {
+                userCache.invalidate(previousEmail);
+                userCache.invalidate(updatedUser.getEmail());
+                evictTeamMembers(previousTeams);
+                evictTeamMembers(saved.getTeams());
+            });
+            return saved;
         }
         throw new RuntimeException("User with id " + id + " not found");
     }
 
+    @Transactional
     public void deleteUser(Long id) {
+        Optional<User> user = userRepository.findById(id);
+        List<Team> teams = user.map(User::getTeams).map(ArrayList::new).orElseGet(ArrayList::new);
         userRepository.deleteById(id);
+        afterCommit(() -> {
+            user.ifPresent(existing -> userCache.invalidate(existing.getEmail()));
+            evictTeamMembers(teams);
+        });
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.get(email);
+    }
+
+    // User.teams owns user_teams, so a change made from this side leaves the cached Team.members of those teams stale
+    private void evictTeamMembers(Collection<Team> teams) {
+        if (teams == null || teams.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (Team team : teams) {
+            if (team != null && team.getId() != null) {
+                cache.evictCollectionData(SecondLevelCacheConfig.TEAM_MEMBERS, team.getId());
+            }
+        }
+    }
+
+    // Evicting before commit would let a concurrent read put the old row straight back into a cache
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
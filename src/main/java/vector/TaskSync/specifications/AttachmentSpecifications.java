@@ -0,0 +1,25 @@
+package vector.TaskSync.specifications;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+import vector.TaskSync.models.Attachment;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.services.AuthorizationContext;
+
+public final class AttachmentSpecifications {
+
+    private AttachmentSpecifications() {
+    }
+
+    // Attachments on tasks without a team are visible to everyone; TEAM_LEAD sees all of them
+    public static Specification<Attachment> visibleTo(AuthorizationContext context) {
+        if (context.isTeamLead()) {
+            return Specification.where(null);
+        }
+        String email = context.email();
+        return (root, query, cb) -> {
+            Path<Team> team = root.get("task").get("team");
+            return cb.or(cb.isNull(team), TeamVisibility.teamIdVisibleTo(email, team.get("id"), query, cb));
+        };
+    }
+}
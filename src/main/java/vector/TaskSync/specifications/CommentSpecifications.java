@@ -0,0 +1,34 @@
+package vector.TaskSync.specifications;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+import vector.TaskSync.models.Comment;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.services.AuthorizationContext;
+
+public final class CommentSpecifications {
+
+    private CommentSpecifications() {
+    }
+
+    // Comments are visible through the team of the task's project; TEAM_LEAD sees all of them
+    public static Specification<Comment> visibleTo(AuthorizationContext context) {
+        return context.isTeamLead() ? hasProjectTeam() : inTeamOf(context.email());
+    }
+
+    public static Specification<Comment> onTask(Long taskId) {
+        return (root, query, cb) -> cb.equal(root.get("task").get("id"), taskId);
+    }
+
+    private static Specification<Comment> hasProjectTeam() {
+        return (root, query, cb) -> cb.isNotNull(projectTeam(root));
+    }
+
+    private static Specification<Comment> inTeamOf(String email) {
+        return (root, query, cb) -> TeamVisibility.teamIdVisibleTo(email, projectTeam(root).get("id"), query, cb);
+    }
+
+    private static Path<Team> projectTeam(Path<Comment> root) {
+        return root.get("task").get("project").get("team");
+    }
+}
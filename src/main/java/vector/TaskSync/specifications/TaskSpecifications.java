@@ -0,0 +1,45 @@
+package vector.TaskSync.specifications;
+
+import org.springframework.data.jpa.domain.Specification;
+import vector.TaskSync.models.Task;
+import vector.TaskSync.models.TaskFilter;
+import vector.TaskSync.services.AuthorizationContext;
+
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    // Tasks are visible through the team of their project, as in the project task listing; TEAM_LEAD sees all of them
+    public static Specification<Task> visibleTo(AuthorizationContext context) {
+        if (context.isTeamLead()) {
+            return Specification.where(null);
+        }
+        String email = context.email();
+        return (root, query, cb) -> TeamVisibility.teamIdVisibleTo(email, root.get("project").get("team").get("id"), query, cb);
+    }
+
+    public static Specification<Task> matching(TaskFilter filter) {
+        Specification<Task> specification = Specification.where(null);
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            specification = specification.and((root, query, cb) -> root.get("status").in(filter.statuses()));
+        }
+        if (filter.assigneeId() != null) {
+            specification = specification.and((root, query, cb) -> cb.equal(root.get("assignee").get("id"), filter.assigneeId()));
+        }
+        // A task belongs to a team through its project; task.team_id is never populated
+        if (filter.teamId() != null) {
+            specification = specification.and((root, query, cb) -> cb.equal(root.get("project").get("team").get("id"), filter.teamId()));
+        }
+        if (filter.projectId() != null) {
+            specification = specification.and((root, query, cb) -> cb.equal(root.get("project").get("id"), filter.projectId()));
+        }
+        if (filter.dueFrom() != null) {
+            specification = specification.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), filter.dueFrom()));
+        }
+        if (filter.dueTo() != null) {
+            specification = specification.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("dueDate"), filter.dueTo()));
+        }
+        return specification;
+    }
+}
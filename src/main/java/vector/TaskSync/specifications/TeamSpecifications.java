@@ -0,0 +1,20 @@
+package vector.TaskSync.specifications;
+
+import org.springframework.data.jpa.domain.Specification;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.services.AuthorizationContext;
+
+public final class TeamSpecifications {
+
+    private TeamSpecifications() {
+    }
+
+    // TEAM_LEAD sees every team, everyone else the teams they belong to
+    public static Specification<Team> visibleTo(AuthorizationContext context) {
+        if (context.isTeamLead()) {
+            return Specification.where(null);
+        }
+        String email = context.email();
+        return (root, query, cb) -> TeamVisibility.teamIdVisibleTo(email, root.get("id"), query, cb);
+    }
+}
@@ -0,0 +1,23 @@
+package vector.TaskSync.specifications;
+
+import jakarta.persistence.criteria.*;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.models.User;
+
+/**
+ * The ids of the teams a user belongs to, as a subquery over {@code user_teams} that the
+ * entity-specific visibility predicates test their team id against.
+ */
+final class TeamVisibility {
+
+    private TeamVisibility() {
+    }
+
+    static Predicate teamIdVisibleTo(String email, Expression<Long> teamId, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Subquery<Long> teamIds = query.subquery(Long.class);
+        Root<User> user = teamIds.from(User.class);
+        Join<User, Team> team = user.join("teams");
+        teamIds.select(team.get("id")).where(cb.equal(user.get("email"), email));
+        return teamId.in(teamIds);
+    }
+}
@@ -0,0 +1,46 @@
+package vector.TaskSync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vector.TaskSync.repositories.SyncChangeRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes change log entries, tombstones included, once they are older than the retention
+ * period. Watermarks that old are answered with a reset, so nobody reads past the purge.
+ */
+@Component
+public class SyncChangePurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncChangePurgeJob.class);
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final Duration retention;
+    private final int chunkSize;
+
+    public SyncChangePurgeJob(SyncChangeRepository syncChangeRepository,
+                              @Value("${application.sync.retention:30d}") Duration retention,
+                              @Value("${application.sync.purge-chunk-size:1000}") int chunkSize) {
+        this.syncChangeRepository = syncChangeRepository;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${application.sync.purge-interval:3600000}",
+            initialDelayString = "${application.sync.purge-interval:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = syncChangeRepository.deleteOlderThan(cutoff, chunkSize);
+            removed += deleted;
+        } while (deleted == chunkSize);
+        logger.info("Sync change purge removed {} entries older than {}", removed, cutoff);
+    }
+}
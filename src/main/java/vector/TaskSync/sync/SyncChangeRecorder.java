@@ -0,0 +1,35 @@
+package vector.TaskSync.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import vector.TaskSync.boards.BoardChangedEvent;
+import vector.TaskSync.models.ChangedEntity;
+import vector.TaskSync.models.SyncChange;
+import vector.TaskSync.repositories.SyncChangeRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends board changes to the sync change log. It listens synchronously, so the entries are
+ * written in the transaction that made the change and commit or roll back with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class SyncChangeRecorder {
+
+    private final SyncChangeRepository syncChangeRepository;
+
+    @EventListener
+    public void onBoardChanged(BoardChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        ChangedEntity entity = event.type().entity();
+        if (event.ids().size() > 1 && entity == ChangedEntity.TASK && !event.type().isDeletion()) {
+            syncChangeRepository.recordTaskChanges(entity, event.ids(), now);
+            return;
+        }
+        for (Long id : event.ids()) {
+            syncChangeRepository.save(new SyncChange(entity, id, event.projectId(), now));
+        }
+    }
+}
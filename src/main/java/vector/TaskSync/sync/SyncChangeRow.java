@@ -0,0 +1,9 @@
+package vector.TaskSync.sync;
+
+import vector.TaskSync.models.ChangedEntity;
+
+import java.time.LocalDateTime;
+
+// A change log entry with the team of its project, which is what visibility is decided on
+public record SyncChangeRow(Long id, ChangedEntity entityType, Long entityId, Long teamId, LocalDateTime changedAt) {
+}
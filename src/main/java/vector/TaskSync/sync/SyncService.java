@@ -0,0 +1,111 @@
+package vector.TaskSync.sync;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.models.*;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.repositories.SyncChangeRepository;
+import vector.TaskSync.services.ChangedEntityLoader;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.LongPredicate;
+
+/**
+ * Changes to tasks, comments and attachments since a client's watermark, read from the sync
+ * change log by id. Each changed entity is returned once, in its current state, or as a deleted
+ * id when it no longer exists, so a response grows with what changed rather than with the
+ * size of the lists the client holds.
+ * <p>
+ * Change ids are handed out when a change is written, not when it commits, so a lower id can
+ * become visible after a higher one. A gap in the ids is therefore only skipped once the change
+ * after it is older than the grace period, the longest a write transaction is expected to run;
+ * until then the watermark stops before the gap and the changes after it are sent again on the
+ * next sync. The watermark also carries the time it was issued, so clients that have been away
+ * longer than the log is kept are told to reload instead.
+ */
+@Service
+public class SyncService {
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final ChangedEntityLoader changedEntityLoader;
+    private final int maxChanges;
+    private final Duration retention;
+    private final Duration grace;
+
+    public SyncService(SyncChangeRepository syncChangeRepository,
+                       ChangedEntityLoader changedEntityLoader,
+                       @Value("${application.sync.max-changes:1000}") int maxChanges,
+                       @Value("${application.sync.retention:30d}") Duration retention,
+                       @Value("${application.sync.grace:60s}") Duration grace) {
+        this.syncChangeRepository = syncChangeRepository;
+        this.changedEntityLoader = changedEntityLoader;
+        this.maxChanges = maxChanges;
+        this.retention = retention;
+        this.grace = grace;
+    }
+
+    /**
+     * @param teamVisible decides, per team id, whether the caller may see the team's projects;
+     *                    changes outside any team are tested as team 0
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(String watermark, LongPredicate teamVisible) {
+        LocalDateTime now = LocalDateTime.now();
+        Cursor since = Cursor.decode(watermark);
+        if (since == null || since.dateKey().isBefore(now.minus(retention).plus(grace))) {
+            return SyncResponse.reset(watermark(now, syncChangeRepository.findLatestId().orElse(0L)));
+        }
+
+        List<SyncChangeRow> rows = syncChangeRepository.findAfter(since.id(), Limit.of(maxChanges + 1));
+        boolean hasMore = rows.size() > maxChanges;
+        LocalDateTime settled = now.minus(grace);
+        long position = since.id();
+        Map<ChangedEntity, Set<Long>> changed = new EnumMap<>(ChangedEntity.class);
+        for (SyncChangeRow row : rows.subList(0, Math.min(rows.size(), maxChanges))) {
+            // A skipped id may be a write still in flight; wait for it until the grace period is over
+            if (row.id() != position + 1 && row.changedAt().isAfter(settled)) {
+                hasMore = true;
+                break;
+            }
+            position = row.id();
+            if (teamVisible.test(row.teamId() != null ? row.teamId() : 0)) {
+                changed.computeIfAbsent(row.entityType(), entity -> new LinkedHashSet<>()).add(row.entityId());
+            }
+        }
+
+        Map<ChangedEntity, Map<Long, Object>> loaded = changedEntityLoader.load(changed);
+        return new SyncResponse(watermark(now, position), false, hasMore,
+                current(changed, loaded, ChangedEntity.TASK, TaskDTO.class),
+                current(changed, loaded, ChangedEntity.COMMENT, CommentDTO.class),
+                current(changed, loaded, ChangedEntity.ATTACHMENT, AttachmentDTO.class),
+                deleted(changed, loaded, ChangedEntity.TASK),
+                deleted(changed, loaded, ChangedEntity.COMMENT),
+                deleted(changed, loaded, ChangedEntity.ATTACHMENT));
+    }
+
+    private static <T> List<T> current(Map<ChangedEntity, Set<Long>> changed, Map<ChangedEntity, Map<Long, Object>> loaded,
+                                       ChangedEntity entity, Class<T> type) {
+        Map<Long, Object> rows = loaded.getOrDefault(entity, Map.of());
+        return changed.getOrDefault(entity, Set.of()).stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(type::cast)
+                .toList();
+    }
+
+    private static List<Long> deleted(Map<ChangedEntity, Set<Long>> changed, Map<ChangedEntity, Map<Long, Object>> loaded,
+                                      ChangedEntity entity) {
+        Map<Long, Object> rows = loaded.getOrDefault(entity, Map.of());
+        return changed.getOrDefault(entity, Set.of()).stream()
+                .filter(id -> !rows.containsKey(id))
+                .toList();
+    }
+
+    private static String watermark(LocalDateTime issued, long position) {
+        return Cursor.of(issued, position).encode();
+    }
+}
@@ -0,0 +1,160 @@
+-- Baseline schema. Hibernate only validates it (ddl-auto=validate); every change from here on
+-- is a new versioned migration.
+
+create sequence project_seq start with 1 increment by 50;
+create sequence token_seq start with 1 increment by 50;
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    gender varchar(255) check (gender in ('MALE', 'FEMALE', 'OTHER')),
+    role varchar(255) not null check (role in ('USER', 'ADMIN', 'MANAGER', 'TEAM_LEAD')),
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table team (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    constraint pk_team primary key (id)
+);
+
+-- One row per membership; the primary key doubles as the (user_id, team_id) lookup index
+create table user_teams (
+    user_id bigint not null,
+    team_id bigint not null,
+    constraint pk_user_teams primary key (user_id, team_id),
+    constraint fk_user_teams_user foreign key (user_id) references users (id),
+    constraint fk_user_teams_team foreign key (team_id) references team (id)
+);
+
+create table project (
+    id bigint not null,
+    name varchar(255) not null,
+    description varchar(255),
+    progress integer,
+    task_count integer default 0 not null,
+    todo_count integer default 0 not null,
+    in_progress_count integer default 0 not null,
+    done_count integer default 0 not null,
+    team_id bigint,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    constraint pk_project primary key (id),
+    constraint fk_project_team foreign key (team_id) references team (id)
+);
+
+create table task (
+    id bigint generated by default as identity,
+    title varchar(255) not null,
+    description varchar(255),
+    status varchar(255) not null check (status in ('TODO', 'IN_PROGRESS', 'DONE')),
+    due_date timestamp(6),
+    project_id bigint not null,
+    assignee_id bigint,
+    team_id bigint,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    constraint pk_task primary key (id),
+    constraint fk_task_project foreign key (project_id) references project (id),
+    constraint fk_task_assignee foreign key (assignee_id) references users (id),
+    constraint fk_task_team foreign key (team_id) references team (id)
+);
+
+create table comment (
+    id bigint generated by default as identity,
+    content varchar(255) not null,
+    created_at timestamp(6),
+    task_id bigint,
+    user_id bigint,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    constraint pk_comment primary key (id),
+    constraint fk_comment_task foreign key (task_id) references task (id),
+    constraint fk_comment_user foreign key (user_id) references users (id)
+);
+
+create table attachment (
+    id bigint generated by default as identity,
+    file_name varchar(255) not null,
+    file_url varchar(255) not null,
+    task_id bigint,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    constraint pk_attachment primary key (id),
+    constraint fk_attachment_task foreign key (task_id) references task (id)
+);
+
+create table token (
+    id bigint not null,
+    token_hash varchar(64) not null,
+    jti varchar(36),
+    token_type varchar(255) check (token_type in ('BEARER', 'PASSWORD_RESET')),
+    expired boolean not null,
+    revoked boolean not null,
+    expires_at timestamp(6),
+    user_id bigint,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    constraint pk_token primary key (id),
+    constraint uk_token_token_hash unique (token_hash),
+    constraint fk_token_user foreign key (user_id) references users (id)
+);
+
+create table mail_outbox (
+    id bigint generated by default as identity,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body varchar(4000) not null,
+    status varchar(255) not null check (status in ('PENDING', 'SENT', 'DEAD')),
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    last_error varchar(1000),
+    created_date timestamp(6) not null,
+    sent_date timestamp(6),
+    constraint pk_mail_outbox primary key (id)
+);
+
+-- Membership seen from the team side (team member lists, visibility subqueries)
+create index idx_user_teams_team on user_teams (team_id, user_id);
+
+create index idx_team_created on team (created_date, id);
+
+create index idx_project_team on project (team_id);
+
+-- Project task listings page by (created_date, id); counters and boards filter by status
+create index idx_task_project_created on task (project_id, created_date, id);
+create index idx_task_project_status on task (project_id, status);
+create index idx_task_created on task (created_date, id);
+create index idx_task_assignee on task (assignee_id);
+create index idx_task_team on task (team_id);
+
+create index idx_comment_task_created on comment (task_id, created_date);
+create index idx_comment_created on comment (created_date, id);
+create index idx_comment_user on comment (user_id);
+
+create index idx_attachment_task on attachment (task_id);
+
+create index idx_token_user on token (user_id);
+create index idx_token_expires_at on token (expires_at);
+-- Only revoked tokens are reloaded into the revocation index at startup
+create index idx_token_revoked_expires_at on token (expires_at) where revoked;
+
+create index idx_mail_outbox_due on mail_outbox (status, next_attempt_at);
@@ -0,0 +1,6 @@
+-- Task ids come from a pooled sequence instead of an identity column so Hibernate can batch
+-- task inserts. The pooled optimizer hands out (value - 49 .. value], so any starting point
+-- above the current maximum id is safe.
+create sequence task_seq start with 1 increment by 50;
+select setval('task_seq', coalesce((select max(id) from task), 0) + 1);
+alter table task alter column id drop identity;
@@ -0,0 +1,4 @@
+-- Version columns for optimistic locking; existing rows start at 0
+alter table task add column version bigint not null default 0;
+alter table team add column version bigint not null default 0;
+alter table project add column version bigint not null default 0;
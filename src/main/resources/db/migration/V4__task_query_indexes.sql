@@ -0,0 +1,11 @@
+-- Task queries start from a project, an assignee or a team and narrow by status and due date.
+-- Each entry column leads an index that carries both, so those filters bound the index range
+-- instead of being checked on heap rows; the old single-column indexes are prefixes of these.
+drop index idx_task_project_status;
+drop index idx_task_assignee;
+drop index idx_task_team;
+create index idx_task_project_status_due on task (project_id, status, due_date);
+create index idx_task_assignee_status_due on task (assignee_id, status, due_date);
+create index idx_task_team_status_due on task (team_id, status, due_date);
+-- Due-date ranges across everything the caller can see
+create index idx_task_due on task (due_date);
@@ -0,0 +1,13 @@
+-- Append-only change log behind /api/sync. The identity column is the change sequence; it is not
+-- cached, so ids are handed out in order across instances.
+create table sync_change (
+    id bigint generated by default as identity,
+    entity_type varchar(20) not null check (entity_type in ('TASK', 'COMMENT', 'ATTACHMENT')),
+    entity_id bigint not null,
+    project_id bigint,
+    changed_at timestamp(6) not null,
+    constraint pk_sync_change primary key (id)
+);
+
+-- Only the retention purge reads by time; clients read by id
+create index idx_sync_change_changed_at on sync_change (changed_at);
@@ -0,0 +1,19 @@
+-- Append-only history of task and team mutations. Ids come from a pooled sequence so the
+-- write-behind flush can batch its inserts; rows outlive the task or team they describe, so
+-- there are no foreign keys.
+create sequence activity_seq start with 1 increment by 50;
+
+create table activity (
+    id bigint not null,
+    activity_type varchar(30) not null,
+    task_id bigint,
+    team_id bigint,
+    actor varchar(255),
+    from_value varchar(255),
+    to_value varchar(255),
+    occurred_at timestamp(6) not null,
+    constraint pk_activity primary key (id)
+);
+
+-- A task's history is read newest first, one keyset page at a time
+create index idx_activity_task_id on activity (task_id, id) where task_id is not null;
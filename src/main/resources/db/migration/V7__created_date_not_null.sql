@@ -0,0 +1,9 @@
+-- Task, comment and team listings page by (created_date, id), so every row needs a creation time.
+-- Rows written before auditing was in place have none; they are dated at the epoch and sort first.
+update task set created_date = timestamp '1970-01-01 00:00:00' where created_date is null;
+update comment set created_date = timestamp '1970-01-01 00:00:00' where created_date is null;
+update team set created_date = timestamp '1970-01-01 00:00:00' where created_date is null;
+
+alter table task alter column created_date set not null;
+alter table comment alter column created_date set not null;
+alter table team alter column created_date set not null;
@@ -0,0 +1,6 @@
+-- The team filter on task queries goes through the task's project: project (team_id) finds the
+-- projects and (project_id, status, due_date) narrows their tasks. task.team_id is never written,
+-- so the composite index on it only costs writes. A partial index is kept for the foreign key,
+-- which still has to be checked when a team is deleted.
+drop index idx_task_team_status_due;
+create index idx_task_team on task (team_id) where team_id is not null;
@@ -0,0 +1,123 @@
+package vector.TaskSync.activity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.repositories.ActivityRepository;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.services.TaskService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        // Flushed by the test itself
+        "application.activity.flush-interval=1h"
+})
+@Import({AuditConfig.class, TaskService.class, ActivityLog.class, ActivityLogTest.Metrics.class})
+// Activity is only logged once the service's own transaction commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ActivityLogTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ActivityLog activityLog;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("lead@example.com", null));
+        Project project = new Project();
+        project.setName("Board");
+        projectId = projectRepository.save(project).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            activityRepository.deleteAll();
+            taskRepository.deleteAll();
+            projectRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void committedChangesAreWrittenBehindAndPagedNewestFirst() {
+        Task task = taskService.createTask(projectId, task("Draft", TaskStatus.TODO, null));
+        taskService.updateTask(task.getId(), task("Ship it", TaskStatus.IN_PROGRESS, null));
+        // A stale edit rolls back and leaves no trace
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> taskService.updateTask(task.getId(), task("Stale", TaskStatus.DONE, -1L)));
+        assertEquals(0, activityRepository.count());
+
+        assertEquals(3, activityLog.flush());
+
+        CursorPage<Activity> first = taskService.getTaskActivity(task.getId(), null, 2);
+        assertEquals(List.of(ActivityType.TASK_STATUS_CHANGED, ActivityType.TASK_RENAMED),
+                first.items().stream().map(Activity::getType).toList());
+        Activity statusChange = first.items().get(0);
+        assertEquals("TODO", statusChange.getFromValue());
+        assertEquals("IN_PROGRESS", statusChange.getToValue());
+        assertEquals("lead@example.com", statusChange.getActor());
+
+        CursorPage<Activity> second = taskService.getTaskActivity(task.getId(), first.nextCursor(), 2);
+        assertEquals(List.of(ActivityType.TASK_CREATED), second.items().stream().map(Activity::getType).toList());
+        assertEquals("Draft", second.items().get(0).getToValue());
+        assertNull(second.nextCursor());
+    }
+
+    private static Task task(String title, TaskStatus status, Long version) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setVersion(version);
+        return task;
+    }
+}
@@ -0,0 +1,130 @@
+package vector.TaskSync.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import vector.TaskSync.config.AuthRateLimiter;
+import vector.TaskSync.config.JwtService;
+import vector.TaskSync.config.LogoutService;
+import vector.TaskSync.config.PasswordHashingService;
+import vector.TaskSync.config.TokenRevocationIndex;
+import vector.TaskSync.config.UserCache;
+import vector.TaskSync.models.Role;
+import vector.TaskSync.models.Token;
+import vector.TaskSync.models.User;
+import vector.TaskSync.repositories.TokenRepository;
+import vector.TaskSync.repositories.UserRepository;
+import vector.TaskSync.services.MailOutboxService;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AuthenticationServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final List<Token> tokens = new ArrayList<>();
+    private final AtomicLong tokenIds = new AtomicLong();
+    private TokenRevocationIndex revocationIndex;
+    private AuthenticationService authenticationService;
+    private LogoutService logoutService;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().id(1L).email(EMAIL).role(Role.USER).password("{noop}secret").build();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        // Keeps saved tokens in memory so revocation can be followed across calls
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        when(tokenRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<Token> saved = invocation.getArgument(0);
+            saved.forEach(this::store);
+            return saved;
+        });
+        when(tokenRepository.save(any())).thenAnswer(invocation -> store(invocation.getArgument(0)));
+        when(tokenRepository.findByToken(any())).thenCallRealMethod();
+        when(tokenRepository.findByTokenHash(any())).thenAnswer(invocation -> tokens.stream()
+                .filter(token -> token.getTokenHash().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(tokenRepository.findAllValidTokenByUser(anyLong())).thenAnswer(invocation -> tokens.stream()
+                .filter(token -> !token.isExpired() || !token.isRevoked())
+                .toList());
+
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 600_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+        when(passwordHashingService.run(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        revocationIndex = new TokenRevocationIndex(tokenRepository, 100);
+        authenticationService = new AuthenticationService(userRepository, passwordHashingService, tokenRepository,
+                jwtService, mock(AuthenticationManager.class), mock(MailOutboxService.class), mock(UserCache.class),
+                revocationIndex, mock(AuthRateLimiter.class));
+        logoutService = new LogoutService(tokenRepository, revocationIndex);
+    }
+
+    @Test
+    void refreshAfterLogoutIsRejected() throws Exception {
+        AuthenticationResponse login = login();
+
+        logoutService.logout(bearer(login.getAccessToken()), new MockHttpServletResponse(), null);
+
+        assertEquals(401, refresh(login.getRefreshToken()).getStatus());
+    }
+
+    @Test
+    void refreshTokenStaysUsableUntilTheNextLogin() throws Exception {
+        AuthenticationResponse first = login();
+
+        MockHttpServletResponse refreshed = refresh(first.getRefreshToken());
+        assertEquals(200, refreshed.getStatus());
+        assertEquals(200, refresh(first.getRefreshToken()).getStatus());
+        String accessToken = new ObjectMapper().readValue(refreshed.getContentAsByteArray(), AuthenticationResponse.class).getAccessToken();
+        assertNotEquals(first.getAccessToken(), accessToken);
+
+        AuthenticationResponse second = login();
+
+        assertEquals(401, refresh(first.getRefreshToken()).getStatus());
+        assertEquals(200, refresh(second.getRefreshToken()).getStatus());
+    }
+
+    private AuthenticationResponse login() {
+        return authenticationService.authenticate(AuthenticationRequest.builder().email(EMAIL).password("secret").build());
+    }
+
+    private MockHttpServletResponse refresh(String refreshToken) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        authenticationService.refreshToken(bearer(refreshToken), response);
+        return response;
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/refresh-token");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private Token store(Token token) {
+        if (token.getId() == null) {
+            token.setId(tokenIds.incrementAndGet());
+            tokens.add(token);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,159 @@
+package vector.TaskSync.boards;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+import vector.TaskSync.repositories.AttachmentRepository;
+import vector.TaskSync.repositories.CommentRepository;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.repositories.TeamRepository;
+import vector.TaskSync.services.ChangedEntityLoader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import(AuditConfig.class)
+// The hub reads committed rows on its own thread
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BoardEventHubTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BoardEventHub hub;
+    private Project watched;
+    private Project other;
+    private Task task;
+    private Comment comment;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team team = new Team();
+            team.setName("Platform");
+            teamRepository.save(team);
+            watched = project(team, "Watched");
+            other = project(team, "Other");
+            task = new Task();
+            task.setTitle("Wire up the board");
+            task.setStatus(TaskStatus.TODO);
+            task.setProject(watched);
+            taskRepository.save(task);
+            comment = new Comment();
+            comment.setContent("Looks good");
+            comment.setTask(task);
+            commentRepository.save(comment);
+        });
+        hub = new BoardEventHub(new ChangedEntityLoader(taskRepository, commentRepository, attachmentRepository), projectRepository,
+                new ObjectMapper().findAndRegisterModules(), transactionManager,
+                16, Duration.ofMinutes(1), Duration.ofMinutes(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            commentRepository.deleteAll();
+            taskRepository.deleteAll();
+            projectRepository.deleteAll();
+            teamRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void pushesChangesToTheProjectsSubscribersOnly() throws Exception {
+        RecordingEmitter watching = new RecordingEmitter();
+        RecordingEmitter elsewhere = new RecordingEmitter();
+        hub.subscribe(watched.getId(), watching, false);
+        hub.subscribe(other.getId(), elsewhere, false);
+
+        hub.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_CREATED, watched.getId(), task.getId()));
+        hub.onBoardChanged(BoardChangedEvent.of(BoardEventType.COMMENT_CREATED, watched.getId(), comment.getId()));
+        hub.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_DELETED, watched.getId(), 999L));
+        hub.awaitDispatcher();
+
+        String created = watching.next();
+        assertTrue(created.contains("event:task.created"), created);
+        assertTrue(created.contains("\"title\":\"Wire up the board\""), created);
+        String commented = watching.next();
+        assertTrue(commented.contains("event:comment.created"), commented);
+        assertTrue(commented.contains("\"content\":\"Looks good\""), commented);
+        assertTrue(commented.contains("\"taskId\":" + task.getId()), commented);
+        String deleted = watching.next();
+        assertTrue(deleted.contains("event:task.deleted"), deleted);
+        assertTrue(deleted.contains("\"id\":999"), deleted);
+        assertNull(elsewhere.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void reconnectingClientsStartWithAResyncAndStreamsAreCapped() throws Exception {
+        RecordingEmitter reconnecting = new RecordingEmitter();
+        hub.subscribe(watched.getId(), reconnecting, true);
+        hub.subscribe(watched.getId(), new RecordingEmitter(), false);
+
+        assertTrue(reconnecting.next().contains("event:" + BoardSubscription.RESYNC));
+        assertThrows(RuntimeException.class, () -> hub.subscribe(other.getId(), new RecordingEmitter(), false));
+        assertEquals(2, hub.subscriberCount());
+    }
+
+    private Project project(Team team, String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setTeam(team);
+        return projectRepository.save(project);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build().stream().map(part -> part.getData().toString()).reduce("", String::concat));
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "No event was sent");
+            return event;
+        }
+    }
+}
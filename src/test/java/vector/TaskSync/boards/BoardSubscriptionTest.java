@@ -0,0 +1,67 @@
+package vector.TaskSync.boards;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSubscriptionTest {
+
+    @Test
+    void slowClientDropsItsBufferAndIsToldToResync() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = new ArrayList<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                String event = builder.build().stream().map(part -> part.getData().toString()).reduce("", String::concat);
+                sending.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (sent) {
+                    sent.add(event.lines().filter(line -> line.startsWith("event:")).findFirst().orElse("comment"));
+                }
+            }
+        };
+        BoardSubscription subscription = new BoardSubscription(1L, emitter, 4, TimeUnit.MINUTES.toMillis(1));
+        Thread writer = Thread.ofVirtual().start(subscription::run);
+
+        assertTrue(subscription.offer(message(1)));
+        assertTrue(sending.await(10, TimeUnit.SECONDS));
+        for (int i = 2; i <= 5; i++) {
+            assertTrue(subscription.offer(message(i)));
+        }
+        // The writer is stuck on the first event and the buffer is full
+        assertFalse(subscription.offer(message(6)));
+        assertTrue(subscription.offer(message(7)));
+        assertEquals(5, subscription.dropped());
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            synchronized (sent) {
+                if (sent.size() == 3) {
+                    break;
+                }
+            }
+            Thread.sleep(10);
+        }
+        subscription.close();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(List.of("event:m1", "event:" + BoardSubscription.RESYNC, "event:m7"), sent);
+    }
+
+    private static BoardSubscription.Message message(int id) {
+        return new BoardSubscription.Message(id, "m" + id, "{}");
+    }
+}
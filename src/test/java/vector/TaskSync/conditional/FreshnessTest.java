@@ -0,0 +1,67 @@
+package vector.TaskSync.conditional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import vector.TaskSync.pagination.Cursor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreshnessTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Test
+    void etagFollowsVersionModificationAndCount() {
+        Freshness resource = Freshness.of(3L, MODIFIED);
+
+        assertEquals(resource, Freshness.of(3L, MODIFIED));
+        assertNotEquals(resource.etag(), Freshness.of(4L, MODIFIED).etag());
+        assertNotEquals(resource.etag(), Freshness.of(3L, MODIFIED.plusNanos(1_000_000)).etag());
+        assertNotEquals(Freshness.of(new ListStamp(10, MODIFIED)).etag(), Freshness.of(new ListStamp(9, MODIFIED)).etag());
+        assertTrue(resource.etag().startsWith("\"") && resource.etag().endsWith("\""));
+    }
+
+    @Test
+    void pagesOfOneListingHaveDifferentEtags() {
+        ListStamp stamp = new ListStamp(50, MODIFIED);
+        Cursor second = Cursor.of(MODIFIED, 20);
+        Freshness firstPage = Freshness.of(stamp, null, 20);
+
+        assertNotEquals(firstPage.etag(), Freshness.of(stamp, second, 20).etag());
+        assertNotEquals(firstPage.etag(), Freshness.of(stamp, null, 10).etag());
+        assertNotEquals(Freshness.of(stamp, second, 20).etag(), Freshness.of(stamp, Cursor.of(MODIFIED, 40), 20).etag());
+        assertEquals(Freshness.of(stamp, second, 20), Freshness.of(stamp, Cursor.decode(second.encode()), 20));
+        assertEquals(firstPage.lastModified(), Freshness.of(stamp).lastModified());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() {
+        Freshness freshness = Freshness.of(new ListStamp(10, MODIFIED));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/teams");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, freshness.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(freshness.checkNotModified(new ServletWebRequest(request, response)));
+        assertEquals(304, response.getStatus());
+        assertEquals(freshness.etag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void changedResourceIsSentWithValidators() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, Freshness.of(3L, MODIFIED).etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Freshness current = Freshness.of(4L, MODIFIED.plusMinutes(1));
+
+        assertFalse(current.checkNotModified(new ServletWebRequest(request, response)));
+        assertEquals(200, response.getStatus());
+        assertEquals(current.etag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals(current.lastModified() / 1000 * 1000, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    }
+}
@@ -0,0 +1,91 @@
+package vector.TaskSync.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.Project;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A two-connection pool with a short checkout timeout, so a leaked connection fails fast
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:connection-release;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AuditConfig.class, ConnectionReleaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConnectionReleaseTest {
+
+    private static final int STREAMS = 5;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private final List<EntityManagerHolder> openStreams = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        openStreams.forEach(holder -> holder.getEntityManager().close());
+        projectRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    void openBoardStreamsDoNotHoldPooledConnections() {
+        Team team = new Team();
+        team.setName("Platform");
+        team = teamRepository.save(team);
+        Project project = new Project();
+        project.setName("Board");
+        project.setTeam(team);
+        Long projectId = projectRepository.save(project).getId();
+
+        OpenEntityManagerInViewInterceptor openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        for (int i = 0; i < STREAMS; i++) {
+            // What BoardController.streamBoard does under open-in-view before handing the request to the emitter
+            ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/projects/" + projectId + "/events"));
+            openInView.preHandle(request);
+            openStreams.add((EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory));
+            assertEquals(team.getId(), projectRepository.findTeamIdById(projectId).orElseThrow());
+            openInView.afterConcurrentHandlingStarted(request);
+        }
+
+        // More streams are open than the pool has connections, and ordinary requests still get one
+        assertEquals(STREAMS, openStreams.stream().filter(holder -> holder.getEntityManager().isOpen()).count());
+        assertEquals("Board", projectRepository.findById(projectId).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,48 @@
+package vector.TaskSync.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import vector.TaskSync.models.Role;
+import vector.TaskSync.models.User;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 120_000L);
+        jwtService.init();
+    }
+
+    @Test
+    void verifyReturnsAllClaimsFromSingleParse() {
+        User user = User.builder().email("lead@example.com").role(Role.TEAM_LEAD).build();
+        String jwt = jwtService.generateToken(user);
+
+        VerifiedToken token = jwtService.verify(jwt).orElseThrow();
+
+        assertEquals("lead@example.com", token.subject());
+        assertNotNull(token.jti());
+        assertFalse(token.isExpired());
+        assertTrue(token.authorities().contains("ROLE_TEAM_LEAD"));
+        assertTrue(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    void verifyRejectsTamperedToken() {
+        User user = User.builder().email("user@example.com").role(Role.USER).build();
+        String jwt = jwtService.generateToken(user);
+
+        assertTrue(jwtService.verify(jwt.substring(0, jwt.length() - 2) + "xx").isEmpty());
+        assertTrue(jwtService.verify("not-a-token").isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package vector.TaskSync.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import vector.TaskSync.repositories.TokenRepository;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code legacy} repeats what the filter did
+ * before tokens were verified once: four signature checks, each with a freshly decoded key and a
+ * new parser. {@code verifyOnce} is the current filter path.
+ *
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.cp
+ * java -cp target/test-classes:target/classes:$(cat target/test.cp) org.openjdk.jmh.Main JwtVerificationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private JwtService jwtService;
+    private TokenRevocationIndex tokenRevocationIndex;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 86_400_000L);
+        jwtService.init();
+        tokenRevocationIndex = new TokenRevocationIndex(mock(TokenRepository.class), 10_000);
+        user = User.withUsername("user@example.com").password("").authorities("ROLE_USER").build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        String subject = parse(token).getSubject();
+        boolean valid = parse(token).getSubject().equals(user.getUsername())
+                && parse(token).getExpiration().after(new Date());
+        blackhole.consume(subject);
+        blackhole.consume(valid);
+        blackhole.consume(parse(token).get("authorities", List.class));
+    }
+
+    @Benchmark
+    public void verifyOnce(Blackhole blackhole) {
+        blackhole.consume(jwtService.verify(token)
+                .filter(verified -> !tokenRevocationIndex.isRevoked(verified.jti()))
+                .map(verified -> jwtService.isTokenValid(verified, user))
+                .orElse(false));
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,73 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import vector.TaskSync.models.Role;
+import vector.TaskSync.models.User;
+import vector.TaskSync.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Logins per second on one core: the password check of AuthenticationService.authenticate, run
+ * through a single-thread PasswordHashingService with the BCrypt cost calibrated the way
+ * ApplicationConfig does at startup. Multiply by the pool size for the expected node capacity.
+ *
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.cp
+ * java -cp target/test-classes:target/classes:$(cat target/test.cp) org.openjdk.jmh.Main LoginThroughputBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginThroughputBenchmark {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Param({"250"})
+    public long targetHashMillis;
+
+    private PasswordHashingService passwordHashingService;
+    private DaoAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        UserCache userCache = mock(UserCache.class);
+        ApplicationConfig config = new ApplicationConfig(userCache, mock(UserRepository.class));
+        ReflectionTestUtils.setField(config, "targetHashMillis", targetHashMillis);
+        // Calibrated once and shared, so the stored hash never asks for an upgrade
+        PasswordEncoder passwordEncoder = config.passwordEncoder();
+        User user = User.builder().email(EMAIL).role(Role.USER).password(passwordEncoder.encode("secret")).build();
+        when(userCache.get(EMAIL)).thenReturn(Optional.of(user));
+
+        provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(config.userDetailsService());
+        provider.setPasswordEncoder(passwordEncoder);
+        passwordHashingService = new PasswordHashingService(passwordEncoder, new SimpleMeterRegistry(), 1, 64, Duration.ofSeconds(30));
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return passwordHashingService.run(() -> provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "secret")));
+    }
+}
@@ -0,0 +1,114 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import vector.TaskSync.models.Role;
+import vector.TaskSync.models.User;
+import vector.TaskSync.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void fullQueueFailsFastInsteadOfWaiting() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordHashingService(null, meterRegistry, 1, 1, Duration.ofSeconds(10));
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> service.run(() -> {
+            started.countDown();
+            return await(release);
+        }));
+        // The only thread has to be busy before the next job is submitted, or that job would run instead of queueing
+        assertTrue(started.await(10, TimeUnit.SECONDS), "blocking job never started");
+        CompletableFuture.runAsync(() -> service.run(() -> true));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queued(meterRegistry) < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, queued(meterRegistry), "second job never reached the queue");
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class, () -> service.run(() -> true));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void timedOutHashesAreSkippedOrCountedUntilTheyFinish() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordHashingService(null, meterRegistry, 1, 4, Duration.ofMillis(100));
+        AtomicBoolean queuedRan = new AtomicBoolean();
+
+        ServiceOverloadedException running = assertThrows(ServiceOverloadedException.class, () -> service.run(() -> await(release)));
+        assertTrue(running.getMessage().contains("timed out"));
+        // The first hash cannot be interrupted and still holds the only thread
+        assertEquals(1, service.abandonedCount());
+        assertThrows(ServiceOverloadedException.class, () -> service.run(() -> queuedRan.getAndSet(true)));
+        assertEquals(1, service.abandonedCount());
+        assertEquals(2.0, meterRegistry.get("password.hashing.timeouts").counter().count());
+
+        release.countDown();
+        assertTrue(service.run(() -> true));
+        assertEquals(0, service.abandonedCount());
+        assertFalse(queuedRan.get());
+    }
+
+    @Test
+    void loginWithAnOutdatedHashStoresAnUpgradedOne() {
+        User user = User.builder().email("user@example.com").role(Role.USER)
+                .password(new BCryptPasswordEncoder(4).encode("secret")).build();
+        UserCache userCache = mock(UserCache.class);
+        when(userCache.get(user.getEmail())).thenReturn(Optional.of(user));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ApplicationConfig config = new ApplicationConfig(userCache, userRepository);
+        ReflectionTestUtils.setField(config, "targetHashMillis", 0L);
+        service = new PasswordHashingService(config.passwordEncoder(), new SimpleMeterRegistry(), 1, 4, Duration.ofSeconds(10));
+        AuthenticationProvider provider = config.authenticationProvider();
+
+        service.run(() -> provider.authenticate(new UsernamePasswordAuthenticationToken(user.getEmail(), "secret")));
+
+        verify(userRepository).save(user);
+        verify(userCache).invalidate(user.getEmail());
+        assertTrue(user.getPassword().startsWith("{bcrypt}$2a$10$"), user.getPassword());
+    }
+
+    private static double queued(SimpleMeterRegistry meterRegistry) {
+        return meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
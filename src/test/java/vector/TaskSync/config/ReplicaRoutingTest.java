@@ -0,0 +1,148 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.services.TeamService;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory H2 databases stand in for the primary and its replica
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "application.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "application.datasource.replica.lag-query=select seconds from replica_lag",
+        "application.datasource.replica.max-lag=5s",
+        "application.cache.second-level.enabled=true",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AuditConfig.class, ReplicaDataSourceConfig.class, ConnectionReleaseConfig.class, SecondLevelCacheConfig.class, TeamService.class,
+        ReplicaRoutingTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private static final Specification<Team> ALL = (root, query, cb) -> cb.conjunction();
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private Long teamId;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // The replica gets the primary's schema, plus a table the lag query reads
+        replica.execute("drop all objects");
+        for (String statement : primary.queryForList("script nodata", String.class)) {
+            if (statement.startsWith("CREATE") && !statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        replica.execute("create table replica_lag (seconds double precision)");
+        replica.execute("insert into replica_lag values (0)");
+
+        Team team = new Team();
+        team.setName("Current");
+        teamId = teamService.save(team).getId();
+        // A replica that has not replayed the latest rename yet
+        replica.update("insert into team (id, name, created_date) values (?, ?, current_timestamp)", teamId, "Stale");
+        entityManagerFactory.getCache().evictAll();
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from team");
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        assertTrue(replicaLagMonitor.isAvailable());
+
+        assertEquals(List.of("Stale"), teamNames());
+        assertEquals(1, primary.queryForObject("select count(*) from team", Integer.class));
+        assertEquals(1, replica.queryForObject("select count(*) from team", Integer.class));
+        assertTrue(meterRegistry.counter("datasource.routing.reads", "pool", "replica").count() > 0);
+    }
+
+    @Test
+    void replicaReadsDoNotFillTheSecondLevelCache() {
+        assertEquals(List.of("Stale"), teamNames());
+        assertFalse(entityManagerFactory.getCache().contains(Team.class, teamId));
+
+        assertEquals("Current", teamService.findTeamById(teamId).orElseThrow().getName());
+        assertTrue(entityManagerFactory.getCache().contains(Team.class, teamId));
+    }
+
+    @Test
+    void lagBeyondTheLimitSendsReadsToThePrimary() {
+        replica.update("update replica_lag set seconds = 30");
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isAvailable());
+        assertEquals(List.of("Current"), teamNames());
+        assertTrue(meterRegistry.counter("datasource.routing.reads", "pool", "primary").count() > 0);
+
+        replica.update("update replica_lag set seconds = 0");
+        replicaLagMonitor.check();
+        assertEquals(List.of("Stale"), teamNames());
+    }
+
+    private List<String> teamNames() {
+        return teamService.findAllTeams(ALL, null, 10).items().stream().map(Team::getName).toList();
+    }
+}
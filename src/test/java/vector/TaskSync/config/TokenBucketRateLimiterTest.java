@@ -0,0 +1,54 @@
+package vector.TaskSync.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(4, 3, 60, 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        long wait = limiter.tryAcquire("10.0.0.1");
+
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void refillsLazilyFromElapsedTime() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(4, 2, 60, 100, now::get);
+        limiter.tryAcquire("key");
+        limiter.tryAcquire("key");
+        assertTrue(limiter.tryAcquire("key") > 0);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+    }
+
+    @Test
+    void forgetsIdleKeysWhenStripeIsFull() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 60, 2, now::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+}
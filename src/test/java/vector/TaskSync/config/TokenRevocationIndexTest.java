@@ -0,0 +1,84 @@
+package vector.TaskSync.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vector.TaskSync.models.Token;
+import vector.TaskSync.repositories.TokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationIndexTest {
+
+    private TokenRepository tokenRepository;
+    private TokenRevocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository = mock(TokenRepository.class);
+        index = new TokenRevocationIndex(tokenRepository, 1000);
+    }
+
+    @Test
+    void revokedIdIsReportedUntilPruned() {
+        String jti = UUID.randomUUID().toString();
+        assertFalse(index.isRevoked(jti));
+
+        index.revoke(jti, System.currentTimeMillis() + 60_000);
+        assertTrue(index.isRevoked(jti));
+
+        index.prune();
+        assertTrue(index.isRevoked(jti));
+        assertFalse(index.isRevoked(UUID.randomUUID().toString()));
+        assertFalse(index.isRevoked(null));
+    }
+
+    @Test
+    void expiredIdsAreIgnoredAndPruned() {
+        index.revoke("already-expired", System.currentTimeMillis() - 1);
+        assertFalse(index.isRevoked("already-expired"));
+        assertEquals(0, index.size());
+
+        index.revoke("short-lived", System.currentTimeMillis() + 50);
+        assertEquals(1, index.size());
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        index.prune();
+        assertEquals(0, index.size());
+        assertFalse(index.isRevoked("short-lived"));
+    }
+
+    @Test
+    void loadsRevokedTokensAtStartup() {
+        Token token = Token.builder()
+                .jti("loaded")
+                .revoked(true)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(tokenRepository.findAllRevokedUnexpired(any())).thenReturn(List.of(token));
+
+        index.load();
+
+        assertTrue(index.isRevoked("loaded"));
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegatives() {
+        TokenRevocationIndex.BloomFilter filter = new TokenRevocationIndex.BloomFilter(5000);
+        for (int i = 0; i < 5000; i++) {
+            filter.add("jti-" + i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package vector.TaskSync.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import vector.TaskSync.models.Role;
+import vector.TaskSync.models.User;
+import vector.TaskSync.repositories.TokenRepository;
+import vector.TaskSync.repositories.UserRepository;
+import vector.TaskSync.services.UserService;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private UserService userService;
+    private JwtService jwtService;
+    private TokenRevocationIndex revocationIndex;
+    private JwtAuthenticationFilter filter;
+    private User stored;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        stored = User.builder().id(1L).email(EMAIL).role(Role.USER).build();
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(userRepository.findById(1L)).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> stored = invocation.getArgument(0));
+        doAnswer(invocation -> stored = null).when(userRepository).deleteById(1L);
+
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+        userService = new UserService(userRepository, null, userCache, null, mock(EntityManagerFactory.class), null);
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 120_000L);
+        jwtService.init();
+        revocationIndex = new TokenRevocationIndex(mock(TokenRepository.class), 100);
+        // Same lookup as ApplicationConfig.userDetailsService
+        UserDetailsService userDetailsService = username -> userCache.get(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revocationIndex);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        assertEquals(EMAIL, userCache.get(EMAIL).orElseThrow().getEmail());
+        assertEquals(EMAIL, userCache.get(EMAIL).orElseThrow().getEmail());
+        assertTrue(userCache.get(null).isEmpty());
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void roleChangeIsSeenOnTheNextLookup() {
+        assertEquals(Role.USER, userCache.get(EMAIL).orElseThrow().getRole());
+
+        userService.updateUser(1L, User.builder().id(1L).email(EMAIL).role(Role.TEAM_LEAD).build());
+
+        assertEquals(Role.TEAM_LEAD, userCache.get(EMAIL).orElseThrow().getRole());
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void deletedUserNoLongerAuthenticatesOnceEvicted() throws Exception {
+        // Refresh tokens carry no authorities, so the filter resolves the user through the cache
+        String refreshToken = jwtService.generateRefreshToken(stored);
+        assertNotNull(authenticate(refreshToken));
+
+        userService.deleteUser(1L);
+
+        assertNull(authenticate(refreshToken));
+        assertTrue(userCache.get(EMAIL).isEmpty());
+    }
+
+    @Test
+    void revokedTokenIsRejectedWithoutAUserLookup() throws Exception {
+        String accessToken = jwtService.generateToken(stored);
+        Authentication authenticated = authenticate(accessToken);
+        assertNotNull(authenticated);
+        assertTrue(authenticated.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_USER")));
+
+        VerifiedToken token = jwtService.verify(accessToken).orElseThrow();
+        revocationIndex.revoke(token.jti(), System.currentTimeMillis() + 60_000);
+
+        assertNull(authenticate(accessToken));
+        verify(userRepository, never()).findByEmail(EMAIL);
+    }
+
+    private Authentication authenticate(String jwt) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,123 @@
+package vector.TaskSync.export;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AuditConfig.class, ProjectExportService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ProjectExportServiceTest {
+
+    private static final int TASKS = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectExportService projectExportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long projectId;
+
+    @BeforeEach
+    void seed() {
+        Team team = new Team();
+        team.setName("Platform");
+        entityManager.persist(team);
+        Project project = new Project();
+        project.setName("Export");
+        project.setTeam(team);
+        projectId = entityManager.persist(project).getId();
+        User author = entityManager.persist(User.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email("author@example.com")
+                .role(Role.USER)
+                .gender(Gender.OTHER)
+                .build());
+
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDescription(i == 0 ? "needs \"quotes\", commas\nand lines" : null);
+            task.setProject(project);
+            task.setTeam(team);
+            task.setAssignee(author);
+            entityManager.persist(task);
+
+            Comment comment = new Comment();
+            comment.setContent("Comment on " + i);
+            comment.setTask(task);
+            comment.setAuthor(author);
+            entityManager.persist(comment);
+
+            Attachment attachment = new Attachment();
+            attachment.setFileName("file" + i + ".txt");
+            attachment.setFileUrl("https://files.example.com/" + i);
+            attachment.setTask(task);
+            entityManager.persist(attachment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ndjsonStreamsOneTaggedLinePerRowWithOneQueryPerSection() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<String> lines = export(ExportFormat.NDJSON, true, true).lines().toList();
+
+        assertEquals(3 * TASKS, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"type\":\"task\""));
+        assertTrue(lines.get(0).contains("\"assigneeEmail\":\"author@example.com\""));
+        assertTrue(lines.get(TASKS).startsWith("{\"type\":\"comment\""));
+        assertTrue(lines.get(2 * TASKS).startsWith("{\"type\":\"attachment\""));
+        // The existence check plus one cursor per section
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void csvQuotesFieldsAndLeavesOutSectionsNotAskedFor() throws IOException {
+        String csv = export(ExportFormat.CSV, false, false);
+
+        assertTrue(csv.startsWith(CsvExportWriter.HEADER + "\r\n"));
+        assertTrue(csv.contains(",\"needs \"\"quotes\"\", commas\nand lines\",TODO,"));
+        assertEquals(TASKS, csv.split("\r\ntask,").length - 1);
+        assertFalse(csv.contains("\r\ncomment,"));
+        assertFalse(csv.contains("\r\nattachment,"));
+    }
+
+    private String export(ExportFormat format, boolean comments, boolean attachments) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        projectExportService.export(projectId, format, comments, attachments).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
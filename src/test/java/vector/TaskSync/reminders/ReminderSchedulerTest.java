@@ -0,0 +1,128 @@
+package vector.TaskSync.reminders;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.Project;
+import vector.TaskSync.models.Task;
+import vector.TaskSync.models.TaskStatus;
+import vector.TaskSync.models.Team;
+import vector.TaskSync.repositories.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import(AuditConfig.class)
+class ReminderSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<TaskReminderEvent> events = new ArrayList<>();
+    private long now;
+    private ReminderScheduler scheduler;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        Team team = new Team();
+        team.setName("Platform");
+        entityManager.persist(team);
+        project = new Project();
+        project.setName("Board");
+        project.setTeam(team);
+        entityManager.persist(project);
+
+        now = millis(START);
+        scheduler = new ReminderScheduler(taskRepository, event -> events.add((TaskReminderEvent) event),
+                transactionManager, Duration.ofHours(24), Duration.ofHours(1), Duration.ofSeconds(1), () -> now);
+        scheduler.reset();
+    }
+
+    @Test
+    void firesDueSoonAndOverdueAsTheirWindowsAreLoaded() {
+        Task overdue = task(TaskStatus.TODO, START.plusMinutes(30));
+        Task dueSoon = task(TaskStatus.IN_PROGRESS, START.plusHours(24).plusMinutes(10));
+        task(TaskStatus.DONE, START.plusMinutes(20));
+        Task later = task(TaskStatus.TODO, START.plusHours(5));
+        entityManager.flush();
+
+        scheduler.tick();
+        // Only the first window is loaded; the due-soon time of the first task has already passed
+        assertEquals(2, scheduler.pendingCount());
+
+        advanceTo(START.plusMinutes(15));
+        assertEquals(List.of(new TaskReminderEvent(dueSoon.getId(), ReminderType.DUE_SOON, dueSoon.getDueDate())), events);
+
+        advanceTo(START.plusMinutes(31));
+        assertEquals(new TaskReminderEvent(overdue.getId(), ReminderType.OVERDUE, overdue.getDueDate()), events.get(1));
+
+        advanceTo(START.plusHours(5).plusSeconds(1));
+        assertEquals(3, events.size());
+        assertEquals(new TaskReminderEvent(later.getId(), ReminderType.OVERDUE, later.getDueDate()), events.get(2));
+    }
+
+    @Test
+    void refreshReplacesOrCancelsPendingReminders() {
+        Task moved = task(TaskStatus.TODO, START.plusMinutes(40));
+        Task finished = task(TaskStatus.TODO, START.plusMinutes(20));
+        Task deleted = task(TaskStatus.TODO, START.plusMinutes(25));
+        entityManager.flush();
+        scheduler.tick();
+        assertEquals(3, scheduler.pendingCount());
+
+        moved.setDueDate(START.plusMinutes(50));
+        finished.setStatus(TaskStatus.DONE);
+        entityManager.remove(deleted);
+        entityManager.flush();
+        scheduler.refresh(List.of(moved.getId(), finished.getId(), deleted.getId()));
+        assertEquals(1, scheduler.pendingCount());
+
+        advanceTo(START.plusMinutes(45));
+        assertTrue(events.isEmpty());
+        advanceTo(START.plusMinutes(50));
+        assertEquals(List.of(new TaskReminderEvent(moved.getId(), ReminderType.OVERDUE, START.plusMinutes(50))), events);
+    }
+
+    private void advanceTo(LocalDateTime time) {
+        now = millis(time);
+        scheduler.tick();
+    }
+
+    private Task task(TaskStatus status, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setTitle("Task due " + dueDate);
+        task.setProject(project);
+        task.setStatus(status);
+        task.setDueDate(dueDate);
+        return entityManager.persist(task);
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,69 @@
+package vector.TaskSync.reminders;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private final List<Long> fired = new ArrayList<>();
+
+    @Test
+    void firesInDeadlineOrderOncePerTimer() {
+        TimerWheel wheel = new TimerWheel(8, 1000, 0);
+        wheel.schedule(3, ReminderType.OVERDUE, null, 3_000);
+        wheel.schedule(1, ReminderType.OVERDUE, null, 500);
+        wheel.schedule(2, ReminderType.DUE_SOON, null, 2_000);
+
+        wheel.advance(1_999, timeout -> fired.add(timeout.taskId));
+        assertEquals(List.of(1L), fired);
+
+        wheel.advance(5_000, timeout -> fired.add(timeout.taskId));
+        wheel.advance(6_000, timeout -> fired.add(timeout.taskId));
+        assertEquals(List.of(1L, 2L, 3L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimersDoNotFire() {
+        TimerWheel wheel = new TimerWheel(8, 1000, 0);
+        TimerWheel.Timeout first = wheel.schedule(1, ReminderType.OVERDUE, null, 2_000);
+        wheel.schedule(2, ReminderType.OVERDUE, null, 2_000);
+        TimerWheel.Timeout third = wheel.schedule(3, ReminderType.OVERDUE, null, 2_000);
+
+        wheel.cancel(first);
+        wheel.cancel(third);
+        wheel.cancel(third);
+        wheel.advance(2_000, timeout -> fired.add(timeout.taskId));
+
+        assertEquals(List.of(2L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForTheirTurn() {
+        TimerWheel wheel = new TimerWheel(4, 1000, 0);
+        wheel.schedule(1, ReminderType.OVERDUE, null, 9_000);
+        wheel.schedule(2, ReminderType.OVERDUE, null, 1_000);
+
+        wheel.advance(8_000, timeout -> fired.add(timeout.taskId));
+        assertEquals(List.of(2L), fired);
+
+        wheel.advance(9_000, timeout -> fired.add(timeout.taskId));
+        assertEquals(List.of(2L, 1L), fired);
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        TimerWheel wheel = new TimerWheel(8, 1000, 10_000);
+        wheel.schedule(1, ReminderType.DUE_SOON, null, 4_000);
+
+        wheel.advance(10_999, timeout -> fired.add(timeout.taskId));
+        assertTrue(fired.isEmpty());
+        wheel.advance(11_000, timeout -> fired.add(timeout.taskId));
+        assertEquals(List.of(1L), fired);
+    }
+}
@@ -0,0 +1,258 @@
+package vector.TaskSync.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.ChangedEntity;
+import vector.TaskSync.models.MailStatus;
+import vector.TaskSync.models.TaskFilter;
+import vector.TaskSync.models.TaskStatus;
+import vector.TaskSync.pagination.KeysetSpecifications;
+import vector.TaskSync.services.AuthorizationContext;
+import vector.TaskSync.services.TaskQueryService;
+import vector.TaskSync.specifications.AttachmentSpecifications;
+import vector.TaskSync.specifications.CommentSpecifications;
+import vector.TaskSync.specifications.TaskSpecifications;
+import vector.TaskSync.specifications.TeamSpecifications;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the Flyway schema on a real PostgreSQL, seeds it, and checks that no repository query has
+ * to fall back to a sequential scan. Sequential scans are disabled for the session, so the planner
+ * only picks one when no index can serve the predicate. Statements that deliberately touch every
+ * row (counter reconciliation, table counts) are not exercised here.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=vector.TaskSync.repositories.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({AuditConfig.class, TaskQueryService.class})
+class QueryPlanTest {
+
+    private static final String MEMBER = "user7@example.com";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private SyncChangeRepository syncChangeRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private TaskQueryService taskQueryService;
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        seed();
+        LocalDateTime now = LocalDateTime.now();
+        long projectId = firstId("project");
+        long taskId = firstId("task");
+        long userId = firstId("users");
+        AuthorizationContext member = context(false);
+        AuthorizationContext lead = context(true);
+
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        RecordingStatementInspector.drain();
+        record(statements, "TaskRepository.findDtosByProjectId", () -> taskRepository.findDtosByProjectId(projectId));
+        record(statements, "TaskRepository.findDtoById", () -> taskRepository.findDtoById(taskId));
+        record(statements, "TaskRepository.findListStampByProjectId", () -> taskRepository.findListStampByProjectId(projectId));
+        record(statements, "TaskRepository.findProjectTeamIdById", () -> taskRepository.findProjectTeamIdById(taskId));
+        record(statements, "TaskRepository.findDtoPageByProjectId", () -> taskRepository.findDtoPageByProjectId(projectId, Limit.of(50)));
+        record(statements, "TaskRepository.findDtoPageByProjectIdAfter", () -> taskRepository.findDtoPageByProjectIdAfter(projectId, now.minusDays(1), taskId, Limit.of(50)));
+        record(statements, "TaskRepository.findPage", () -> taskRepository.findPage(Limit.of(50)));
+        record(statements, "TaskRepository.findPageAfter", () -> taskRepository.findPageAfter(now.minusDays(1), taskId, Limit.of(50)));
+        record(statements, "TaskRepository.findByProjectId", () -> taskRepository.findByProjectId(projectId));
+        List<TaskStatus> open = List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        record(statements, "TaskQueryService.findTasks(project, status, due)", () -> taskQueryService.findTasks(
+                new TaskFilter(open, null, null, projectId, now, now.plusDays(7)), TaskSpecifications.visibleTo(lead), List.of("dueDate"), null, 50));
+        record(statements, "TaskQueryService.findTasks(assignee, status)", () -> taskQueryService.findTasks(
+                new TaskFilter(open, userId, null, null, null, null), TaskSpecifications.visibleTo(member), List.of("-dueDate"), null, 50));
+        record(statements, "TaskQueryService.findTasks(team, due)", () -> taskQueryService.findTasks(
+                new TaskFilter(null, null, firstId("team"), null, now, now.plusDays(7)), TaskSpecifications.visibleTo(member), List.of("status", "dueDate"), null, 50));
+        record(statements, "TaskQueryService.findTasks(due)", () -> taskQueryService.findTasks(
+                new TaskFilter(null, null, null, null, now, now.plusDays(1)), TaskSpecifications.visibleTo(member), List.of(), null, 50));
+        record(statements, "TaskRepository.findDueInWindow", () -> taskRepository.findDueInWindow(
+                now, now.plusHours(1), now.plusDays(1), now.plusDays(1).plusHours(1)));
+        record(statements, "TaskRepository.findDueDatesByIdIn", () -> taskRepository.findDueDatesByIdIn(List.of(taskId)));
+        record(statements, "TaskRepository.findProjectIdById", () -> taskRepository.findProjectIdById(taskId));
+        record(statements, "CommentRepository.findDtosByIdIn", () -> commentRepository.findDtosByIdIn(List.of(firstId("comment"))));
+        record(statements, "CommentRepository.findByTaskId", () -> commentRepository.findByTaskId(taskId));
+        record(statements, "CommentRepository.findBy(visibleTo member)", () -> commentRepository.findBy(CommentSpecifications.visibleTo(member),
+                query -> query.sortBy(KeysetSpecifications.BY_CREATED_DATE).limit(50).all()));
+        record(statements, "CommentRepository.findBy(visibleTo lead)", () -> commentRepository.findBy(CommentSpecifications.visibleTo(lead),
+                query -> query.sortBy(KeysetSpecifications.BY_CREATED_DATE).limit(50).all()));
+        record(statements, "CommentRepository.findAll(onTask)", () -> commentRepository.findAll(CommentSpecifications.onTask(taskId).and(CommentSpecifications.visibleTo(member))));
+        record(statements, "TeamRepository.count(visibleTo member)", () -> teamRepository.count(TeamSpecifications.visibleTo(member)));
+        record(statements, "TeamRepository.findBy(visibleTo member)", () -> teamRepository.findBy(TeamSpecifications.visibleTo(member),
+                query -> query.sortBy(KeysetSpecifications.BY_CREATED_DATE).limit(50).all()));
+        record(statements, "AttachmentRepository.findBy(visibleTo member)", () -> attachmentRepository.findBy(AttachmentSpecifications.visibleTo(member),
+                query -> query.sortBy(KeysetSpecifications.BY_ID).limit(50).all()));
+        record(statements, "AttachmentRepository.findDtosByIdIn", () -> attachmentRepository.findDtosByIdIn(List.of(firstId("attachment"))));
+        record(statements, "AttachmentRepository.findProjectTeamIdById", () -> attachmentRepository.findProjectTeamIdById(firstId("attachment")));
+        record(statements, "UserRepository.findByEmail", () -> userRepository.findByEmail(MEMBER));
+        record(statements, "UserRepository.findTeamIdsByEmail", () -> userRepository.findTeamIdsByEmail(MEMBER));
+        record(statements, "UserRepository.findPage", () -> userRepository.findPage(Limit.of(50)));
+        record(statements, "UserRepository.findPageAfter", () -> userRepository.findPageAfter(MEMBER, userId, Limit.of(50)));
+        record(statements, "ProjectRepository.findByTeamId", () -> projectRepository.findByTeamId(firstId("team")));
+        record(statements, "ProjectRepository.findListStampByTeamId", () -> projectRepository.findListStampByTeamId(firstId("team")));
+        record(statements, "ProjectRepository.findTeamIdById", () -> projectRepository.findTeamIdById(projectId));
+        record(statements, "ProjectRepository.adjustTaskCounts", () -> projectRepository.adjustTaskCounts(projectId, 1, 1, 0, 0));
+        record(statements, "TokenRepository.findByTokenHash", () -> tokenRepository.findByTokenHash("0".repeat(64)));
+        record(statements, "TokenRepository.findAllValidTokenByUser", () -> tokenRepository.findAllValidTokenByUser(userId));
+        record(statements, "TokenRepository.findAllRevokedUnexpired", () -> tokenRepository.findAllRevokedUnexpired(now));
+        record(statements, "TokenRepository.deleteExpired", () -> tokenRepository.deleteExpired(now.minusYears(1), 100));
+        record(statements, "SyncChangeRepository.findAfter", () -> syncChangeRepository.findAfter(firstId("sync_change"), Limit.of(1000)));
+        record(statements, "SyncChangeRepository.findLatestId", () -> syncChangeRepository.findLatestId());
+        record(statements, "SyncChangeRepository.recordTaskChanges", () -> syncChangeRepository.recordTaskChanges(ChangedEntity.TASK, List.of(taskId), now));
+        record(statements, "SyncChangeRepository.deleteOlderThan", () -> syncChangeRepository.deleteOlderThan(now.minusYears(1), 100));
+        record(statements, "ActivityRepository.findByTaskIdOrderByIdDesc", () -> activityRepository.findByTaskIdOrderByIdDesc(taskId, Limit.of(50)));
+        record(statements, "ActivityRepository.findByTaskIdAndIdLessThanOrderByIdDesc", () -> activityRepository
+                .findByTaskIdAndIdLessThanOrderByIdDesc(taskId, Long.MAX_VALUE, Limit.of(50)));
+        record(statements, "MailOutboxRepository.findByStatusAndNextAttemptAt", () -> mailOutboxRepository
+                .findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(MailStatus.PENDING, now, Limit.of(50)));
+
+        jdbcTemplate.execute("set local enable_seqscan = off");
+        // The driver would bind zero parameters to the placeholders, so EXPLAIN runs server-side
+        jdbcTemplate.execute("""
+            create function pg_temp.generic_plan(query text) returns setof text language plpgsql as $$
+            begin
+              return query execute 'explain (generic_plan) ' || query;
+            end $$
+            """);
+        List<String> failures = new ArrayList<>();
+        statements.forEach((name, sqls) -> sqls.forEach(sql -> {
+            String plan = String.join("\n", jdbcTemplate.queryForList("select * from pg_temp.generic_plan(?)", String.class, numberParameters(sql)));
+            if (plan.contains("Seq Scan")) {
+                failures.add(name + "\n" + sql + "\n" + plan);
+            }
+        }));
+        assertTrue(failures.isEmpty(), "Sequential scans found:\n\n" + String.join("\n\n", failures));
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("""
+            insert into users (email, first_name, last_name, role)
+              select 'user' || g || '@example.com', 'First', 'Last', 'USER' from generate_series(1, 2000) g;
+            insert into team (name, created_date)
+              select 'Team ' || g, now() - g * interval '1 minute' from generate_series(1, 200) g;
+            insert into user_teams (user_id, team_id)
+              select u.id, t.id from users u join team t on t.id % 200 = u.id % 200;
+            insert into project (id, name, team_id, created_date)
+              select t.id, 'Project ' || t.id, t.id, now() from team t;
+            insert into task (id, title, status, project_id, team_id, assignee_id, due_date, created_date)
+              select nextval('task_seq'), 'Task ' || g, (array['TODO', 'IN_PROGRESS', 'DONE'])[g % 3 + 1], p.id, p.team_id,
+                     (select min(id) from users) + g % 2000, now() + (g % 90) * interval '1 day', now() - g * interval '1 second'
+              from generate_series(1, 20000) g join project p on p.id = (select min(id) from project) + g % 200;
+            insert into comment (content, task_id, created_date)
+              select 'Comment', t.id, t.created_date + c * interval '1 minute' from task t cross join generate_series(1, 2) c;
+            insert into attachment (file_name, file_url, task_id)
+              select 'file.txt', 'https://files.example.com/' || t.id, t.id from task t;
+            insert into token (id, token_hash, jti, token_type, expired, revoked, expires_at, user_id)
+              select g, md5(g::text) || md5(g::text), md5(g::text), 'BEARER', g % 2 = 0, g % 2 = 0,
+                     now() + (g % 48 - 24) * interval '1 hour', (select min(id) from users) + g % 2000
+              from generate_series(1, 20000) g;
+            insert into mail_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_date)
+              select 'user' || g || '@example.com', 'Subject', 'Body', case when g % 50 = 0 then 'PENDING' else 'SENT' end,
+                     0, now(), now()
+              from generate_series(1, 5000) g;
+            insert into sync_change (entity_type, entity_id, project_id, changed_at)
+              select 'TASK', t.id, t.project_id, now() - (20000 - t.id % 20000) * interval '1 minute' from task t;
+            insert into activity (id, activity_type, task_id, actor, from_value, to_value, occurred_at)
+              select nextval('activity_seq'), 'TASK_STATUS_CHANGED', t.id, 'user@example.com', 'TODO', 'DONE', now()
+              from task t cross join generate_series(1, 3) a;
+            analyze;
+            """);
+    }
+
+    private static void record(Map<String, List<String>> statements, String name, Runnable call) {
+        call.run();
+        statements.put(name, RecordingStatementInspector.drain());
+    }
+
+    private long firstId(String table) {
+        return jdbcTemplate.queryForObject("select min(id) from " + table, Long.class);
+    }
+
+    // EXPLAIN (GENERIC_PLAN) wants numbered placeholders instead of JDBC's '?'
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static AuthorizationContext context(boolean teamLead) {
+        AuthorizationContext context = mock(AuthorizationContext.class);
+        when(context.isTeamLead()).thenReturn(teamLead);
+        when(context.email()).thenReturn(MEMBER);
+        return context;
+    }
+}
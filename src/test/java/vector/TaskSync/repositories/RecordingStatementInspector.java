@@ -0,0 +1,31 @@
+package vector.TaskSync.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers every SQL statement Hibernate prepares so tests can inspect what a repository call
+ * actually sent to the database.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> drain() {
+        synchronized (statements) {
+            List<String> drained = List.copyOf(statements);
+            statements.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package vector.TaskSync.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.conditional.ListStamp;
+import vector.TaskSync.models.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(AuditConfig.class)
+class TaskRepositoryTest {
+
+    private static final int TASKS = 200;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Project project;
+
+    @BeforeEach
+    void seed() {
+        Team team = new Team();
+        team.setName("Platform");
+        entityManager.persist(team);
+
+        List<User> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = User.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("member" + i + "@example.com")
+                    .role(Role.USER)
+                    .gender(Gender.OTHER)
+                    .teams(new ArrayList<>(List.of(team)))
+                    .build();
+            members.add(entityManager.persist(user));
+        }
+
+        project = new Project();
+        project.setName("Board");
+        project.setTeam(team);
+        entityManager.persist(project);
+
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            task.setProject(project);
+            task.setTeam(team);
+            task.setAssignee(i % 3 == 0 ? null : members.get(i % members.size()));
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingProjectTasksIsOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TaskDTO> tasks = taskRepository.findDtosByProjectId(project.getId());
+
+        assertEquals(TASKS, tasks.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        TaskDTO assigned = tasks.stream().filter(task -> task.getAssignee() != null).findFirst().orElseThrow();
+        assertNotNull(assigned.getAssignee().getEmail());
+        assertEquals("Board", assigned.getProject().getName());
+        assertEquals("Platform", assigned.getProject().getTeam().getName());
+    }
+
+    @Test
+    void listStampChangesWithTheListing() {
+        ListStamp before = taskRepository.findListStampByProjectId(project.getId());
+        assertEquals(TASKS, before.count());
+        assertNotNull(before.latestModification());
+
+        Long taskId = taskRepository.findDtosByProjectId(project.getId()).get(0).getId();
+        entityManager.getEntityManager()
+                .createQuery("update Task t set t.lastModifiedDate = :modified where t.id = :id")
+                .setParameter("modified", before.latestModification().plusSeconds(1))
+                .setParameter("id", taskId)
+                .executeUpdate();
+        ListStamp updated = taskRepository.findListStampByProjectId(project.getId());
+        assertEquals(TASKS, updated.count());
+        assertTrue(updated.latestModification().isAfter(before.latestModification()));
+
+        taskRepository.deleteById(taskId);
+        taskRepository.flush();
+        assertEquals(TASKS - 1, taskRepository.findListStampByProjectId(project.getId()).count());
+    }
+
+    @Test
+    void keysetPagesVisitEveryTaskOnce() {
+        Set<Long> seen = new HashSet<>();
+        List<TaskDTO> page = taskRepository.findDtoPageByProjectId(project.getId(), Limit.of(30));
+        int pages = 0;
+        while (!page.isEmpty()) {
+            pages++;
+            page.forEach(task -> assertTrue(seen.add(task.getId())));
+            TaskDTO last = page.get(page.size() - 1);
+            page = taskRepository.findDtoPageByProjectIdAfter(project.getId(), last.getCreatedDate(), last.getId(), Limit.of(30));
+        }
+
+        assertEquals(TASKS, seen.size());
+        assertEquals(7, pages);
+    }
+}
@@ -0,0 +1,75 @@
+package vector.TaskSync.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex(0);
+
+    @Test
+    void everyWordMustMatchAndOnlyTheLastIsAPrefix() {
+        index.put(1, 10, Set.of("quarterly", "budget", "review"));
+        index.put(2, 10, Set.of("budget", "draft"));
+
+        assertArrayEquals(new long[]{1}, search("budget rev"));
+        assertArrayEquals(new long[]{2, 1}, search("budget"));
+        assertArrayEquals(new long[0], search("bud review"));
+        assertArrayEquals(new long[0], search("budget missing"));
+    }
+
+    @Test
+    void filtersByTeamAndReturnsNewestFirst() {
+        index.put(1, 10, Set.of("alpha"));
+        index.put(2, 20, Set.of("alpha"));
+        index.put(3, 10, Set.of("alpha"));
+        index.put(4, 0, Set.of("alpha"));
+
+        assertArrayEquals(new long[]{3, 1}, index.search(List.of("alpha"), teamId -> teamId == 10, 10));
+        assertArrayEquals(new long[]{4, 3}, index.search(List.of("alpha"), teamId -> true, 2));
+    }
+
+    @Test
+    void reindexingReplacesTheTasksWords() {
+        index.put(1, 10, Set.of("alpha"));
+        index.put(1, 10, Set.of("beta"));
+
+        assertArrayEquals(new long[0], search("alpha"));
+        assertArrayEquals(new long[]{1}, search("beta"));
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        assertArrayEquals(new long[0], search("beta"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void compactionDropsDeletedDocumentsAndKeepsResults() {
+        for (long taskId = 1; taskId <= 3_000; taskId++) {
+            index.put(taskId, taskId % 3, Set.of("common", "word" + taskId % 7));
+        }
+        for (long taskId = 1; taskId <= 2_000; taskId++) {
+            index.put(taskId, taskId % 3, Set.of("common", "word" + taskId % 5));
+        }
+        assertTrue(index.needsCompaction());
+
+        TaskSearchIndex compacted = index.compact();
+
+        assertFalse(compacted.needsCompaction());
+        assertEquals(3_000, compacted.size());
+        for (String query : List.of("common", "word3", "word6", "common wo")) {
+            List<String> words = Tokenizer.tokens(query);
+            assertArrayEquals(index.search(words, teamId -> teamId != 1, 5_000),
+                    compacted.search(words, teamId -> teamId != 1, 5_000), query);
+        }
+        assertTrue(compacted.postingBytes() < index.postingBytes());
+    }
+
+    private long[] search(String query) {
+        return index.search(Tokenizer.tokens(query), teamId -> true, 100);
+    }
+}
@@ -0,0 +1,133 @@
+package vector.TaskSync.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+import vector.TaskSync.repositories.CommentRepository;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.repositories.TeamRepository;
+import vector.TaskSync.services.CommentService;
+import vector.TaskSync.services.TaskService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({AuditConfig.class, TaskSearchService.class, TaskService.class, CommentService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskSearchServiceTest {
+
+    @Autowired
+    private TaskSearchService searchService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private Long teamId;
+    private Long projectId;
+
+    @BeforeEach
+    void seed() {
+        Team team = new Team();
+        team.setName("Finance");
+        teamId = teamRepository.save(team).getId();
+        Project project = new Project();
+        project.setName("Planning");
+        project.setTeam(team);
+        projectId = projectRepository.save(project).getId();
+
+        Task task = new Task();
+        task.setTitle("Quarterly budget review");
+        task.setProject(project);
+        task = taskRepository.save(task);
+        Comment comment = new Comment();
+        comment.setContent("Numbers from accounting are late");
+        comment.setTask(task);
+        commentRepository.save(comment);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll();
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    void rebuildIndexesTitlesAndCommentsPerTeam() throws Exception {
+        searchService.rebuild();
+        searchService.awaitIndexer();
+
+        assertEquals(List.of("Quarterly budget review"), search("budget"));
+        assertEquals(List.of("Quarterly budget review"), search("quarterly accou"));
+        assertEquals(List.of(), searchService.search("budget", id -> id != teamId, 10));
+        assertThrows(IllegalStateException.class, () -> search(" -- "));
+    }
+
+    @Test
+    void writesAreIndexedAfterTheyCommit() throws Exception {
+        searchService.rebuild();
+        searchService.awaitIndexer();
+
+        Task created = taskService.createTask(projectId, task("Migrate the reporting database"));
+        searchService.awaitIndexer();
+        assertEquals(List.of("Migrate the reporting database"), search("migr"));
+
+        taskService.updateTask(created.getId(), task("Upgrade the reporting cluster"));
+        searchService.awaitIndexer();
+        assertEquals(List.of(), search("migrate"));
+        assertEquals(List.of("Upgrade the reporting cluster"), search("reporting"));
+
+        Comment comment = new Comment();
+        comment.setContent("Blocked on a flaky health check");
+        commentService.createCommentForTask(created.getId(), comment);
+        searchService.awaitIndexer();
+        assertEquals(List.of("Upgrade the reporting cluster"), search("flaky"));
+
+        commentService.deleteComment(comment.getId());
+        taskService.deleteTask(created.getId());
+        searchService.awaitIndexer();
+        assertEquals(List.of(), search("reporting"));
+    }
+
+    private List<String> search(String query) {
+        return searchService.search(query, id -> true, 10).stream().map(TaskDTO::getTitle).toList();
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(TaskStatus.TODO);
+        return task;
+    }
+}
@@ -0,0 +1,111 @@
+package vector.TaskSync.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import vector.TaskSync.activity.ActivityEvent;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AuditConfig.class, BulkTaskService.class, LocalValidatorFactoryBean.class})
+@RecordApplicationEvents
+class BulkTaskServiceTest {
+
+    private static final int VALID = 120;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BulkTaskService bulkTaskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Long projectId;
+    private Long assigneeId;
+
+    @BeforeEach
+    void seed() {
+        Team team = new Team();
+        team.setName("Platform");
+        entityManager.persist(team);
+        Project project = new Project();
+        project.setName("Import");
+        project.setTeam(team);
+        projectId = entityManager.persist(project).getId();
+        assigneeId = entityManager.persist(User.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email("assignee@example.com")
+                .role(Role.USER)
+                .gender(Gender.OTHER)
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void createsValidItemsInBatchesAndReportsTheRest() {
+        List<BulkTaskItem> items = new ArrayList<>();
+        for (int i = 0; i < VALID; i++) {
+            items.add(new BulkTaskItem("Task " + i, null, i % 2 == 0 ? TaskStatus.DONE : null, null, i % 3 == 0 ? assigneeId : null));
+        }
+        items.add(new BulkTaskItem(" ", null, null, null, null));
+        items.add(new BulkTaskItem("Orphan", null, null, null, 999_999L));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkTaskResponse response = bulkTaskService.createTasks(projectId, items);
+
+        assertEquals(VALID, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertNotNull(response.getResults().get(0).getId());
+        assertEquals(List.of("title must not be blank"), response.getResults().get(VALID).getErrors());
+        assertEquals(VALID + 1, response.getResults().get(VALID + 1).getIndex());
+        assertTrue(statistics.getPrepareStatementCount() < 20, "statements: " + statistics.getPrepareStatementCount());
+        List<ActivityEvent> activities = events.stream(ActivityEvent.class).toList();
+        assertEquals(VALID, activities.size());
+        assertTrue(activities.stream().allMatch(activity -> activity.type() == ActivityType.TASK_CREATED));
+        assertEquals(response.getResults().get(0).getId(), activities.get(0).taskId());
+        assertEquals("Task 0", activities.get(0).to());
+
+        Project project = entityManager.find(Project.class, projectId);
+        assertEquals(VALID, project.getTaskCount());
+        assertEquals(VALID / 2, project.getDoneCount());
+        assertEquals(VALID / 2, project.getTodoCount());
+        assertEquals(VALID, entityManager.getEntityManager()
+                .createQuery("select count(t) from Task t where t.team is not null", Long.class)
+                .getSingleResult());
+    }
+
+    @Test
+    void rejectsOversizedOrEmptyPayloads() {
+        assertThrows(IllegalStateException.class, () -> bulkTaskService.createTasks(projectId, List.of()));
+    }
+}
@@ -0,0 +1,39 @@
+package vector.TaskSync.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void containsOnlyAddedValues() {
+        LongHashSet set = LongHashSet.of(List.of(3L, 7L, 0L, -5L));
+
+        assertTrue(set.contains(3));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-5));
+        assertFalse(set.contains(4));
+        assertFalse(set.add(7));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        LongHashSet set = new LongHashSet(1);
+        Random random = new Random(42);
+        long[] values = random.longs(1000).toArray();
+        for (long value : values) {
+            set.add(value);
+        }
+
+        for (long value : values) {
+            assertTrue(set.contains(value));
+        }
+        assertEquals(1000, set.size());
+        assertFalse(set.contains(values[0] + 1));
+    }
+}
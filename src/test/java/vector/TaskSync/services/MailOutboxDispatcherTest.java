@@ -0,0 +1,141 @@
+package vector.TaskSync.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import vector.TaskSync.models.MailOutbox;
+import vector.TaskSync.models.MailStatus;
+import vector.TaskSync.repositories.MailOutboxRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MailOutboxDispatcherTest {
+
+    private LocalSmtpServer smtpServer;
+    private MailOutboxRepository repository;
+    private JavaMailSenderImpl mailSender;
+    private PlatformTransactionManager transactionManager;
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final List<Boolean> sentInTransaction = new ArrayList<>();
+    private List<MailOutbox> stored = List.of();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+        repository = mock(MailOutboxRepository.class);
+        when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(any(), any(), any())).thenAnswer(invocation -> stored);
+        when(repository.findAllById(any())).thenAnswer(invocation -> stored);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).commit(any(TransactionStatus.class));
+        mailSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... simpleMessages) {
+                sentInTransaction.add(inTransaction.get());
+                super.send(simpleMessages);
+            }
+        };
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsWholeBatchOverOneConnection() {
+        List<MailOutbox> batch = List.of(pending(1L, "a@example.com"), pending(2L, "b@example.com"));
+        stored = batch;
+
+        int sent = dispatcher(5).dispatch();
+
+        assertEquals(2, sent);
+        assertEquals(List.of("a@example.com", "b@example.com"), smtpServer.deliveredTo);
+        assertEquals(1, smtpServer.connections.get());
+        assertTrue(batch.stream().allMatch(mail -> mail.getStatus() == MailStatus.SENT));
+    }
+
+    @Test
+    void retriesRejectedRecipientWithBackoff() {
+        MailOutbox rejected = pending(1L, "reject@example.com");
+        MailOutbox accepted = pending(2L, "ok@example.com");
+        stored = List.of(rejected, accepted);
+
+        dispatcher(5).dispatch();
+
+        assertEquals(MailStatus.SENT, accepted.getStatus());
+        assertEquals(MailStatus.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertTrue(rejected.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertNotNull(rejected.getLastError());
+    }
+
+    @Test
+    void deadLettersAfterMaxAttemptsWhenServerIsDown() throws IOException {
+        smtpServer.close();
+        MailOutbox mail = pending(1L, "a@example.com");
+        mail.setAttempts(2);
+        stored = List.of(mail);
+
+        assertEquals(0, dispatcher(3).dispatch());
+
+        assertEquals(MailStatus.DEAD, mail.getStatus());
+        assertEquals(3, mail.getAttempts());
+    }
+
+    @Test
+    void claimsAndRecordsInShortTransactionsAroundTheSend() {
+        MailOutbox mail = pending(1L, "a@example.com");
+        stored = List.of(mail);
+        // The row is leased before the send, so another dispatcher does not see it as due meanwhile
+        doAnswer(invocation -> {
+            assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+            return invocation.getArgument(0);
+        }).when(repository).saveAll(any());
+
+        dispatcher(5).dispatch();
+
+        assertEquals(List.of(false), sentInTransaction);
+        verify(transactionManager, times(2)).commit(any(TransactionStatus.class));
+        assertEquals(MailStatus.SENT, mail.getStatus());
+    }
+
+    private MailOutboxDispatcher dispatcher(int maxAttempts) {
+        return new MailOutboxDispatcher(repository, mailSender, transactionManager, "noreply@example.com", 50, maxAttempts,
+                Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+
+    private static MailOutbox pending(Long id, String recipient) {
+        return MailOutbox.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Subject")
+                .body("Body")
+                .status(MailStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package vector.TaskSync.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.config.GlobalExceptionHandler;
+import vector.TaskSync.models.*;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TaskRepository;
+import vector.TaskSync.repositories.TeamRepository;
+import vector.TaskSync.repositories.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AuditConfig.class, TaskService.class, TeamService.class, ProjectService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockingTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long teamId;
+    private Long userId;
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Team team = new Team();
+        team.setName("Platform");
+        teamId = teamRepository.save(team).getId();
+        userId = userRepository.save(User.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email("member@example.com")
+                .role(Role.USER)
+                .gender(Gender.OTHER)
+                .build()).getId();
+        Project project = new Project();
+        project.setName("Board");
+        project = projectRepository.save(project);
+        projectId = project.getId();
+        Task task = new Task();
+        task.setTitle("Original");
+        task.setProject(project);
+        taskId = taskRepository.save(task).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    void eachMutationChecksOutOneConnection() {
+        statistics.clear();
+        teamService.addMember(teamId, userId);
+        assertEquals(1, statistics.getConnectCount());
+
+        statistics.clear();
+        taskService.assignTask(taskId, userId);
+        assertEquals(1, statistics.getConnectCount());
+
+        statistics.clear();
+        taskService.updateTask(taskId, edit("Renamed", null));
+        assertEquals(1, statistics.getConnectCount());
+
+        statistics.clear();
+        teamService.removeMember(teamId, userId);
+        assertEquals(1, statistics.getConnectCount());
+    }
+
+    @Test
+    void staleVersionFromTheClientIsRejected() {
+        Long version = taskRepository.findById(taskId).orElseThrow().getVersion();
+        taskService.updateTask(taskId, edit("First edit", version));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> taskService.updateTask(taskId, edit("Second edit", version)));
+        assertEquals("First edit", taskRepository.findById(taskId).orElseThrow().getTitle());
+    }
+
+    @Test
+    void concurrentWriteToTheSameRowConflicts() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> outer.executeWithoutResult(status -> {
+            Task task = taskRepository.findById(taskId).orElseThrow();
+            other.executeWithoutResult(inner -> taskService.updateTask(taskId, edit("Committed first", null)));
+            task.setTitle("Lost update");
+        }));
+        assertEquals("Committed first", taskRepository.findById(taskId).orElseThrow().getTitle());
+    }
+
+    @Test
+    void projectEditKeepsCounterChangesCommittedMeanwhile() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            projectRepository.findById(projectId).orElseThrow();
+            other.executeWithoutResult(inner -> taskService.createTask(projectId, edit("Created meanwhile", null)));
+            Project edit = new Project();
+            edit.setName("Renamed");
+            projectService.updateProject(projectId, edit);
+        });
+
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        assertEquals("Renamed", project.getName());
+        assertEquals(1, project.getTaskCount());
+        assertEquals(1, project.getTodoCount());
+        assertEquals(0, project.getProgress());
+    }
+
+    @Test
+    void projectCreatedAgainstATeamGivenOnlyById() {
+        Team team = new Team();
+        team.setId(teamId);
+        Project project = new Project();
+        project.setName("New board");
+        project.setTeam(team);
+
+        Long id = projectService.createProject(project).getId();
+
+        assertEquals(teamId, projectRepository.findTeamIdById(id).orElseThrow());
+        Project unknownTeam = new Project();
+        unknownTeam.setName("Orphan");
+        unknownTeam.setTeam(new Team());
+        unknownTeam.getTeam().setId(-1L);
+        assertThrows(IllegalStateException.class, () -> projectService.createProject(unknownTeam));
+    }
+
+    @Test
+    void membershipChangesBumpTheTeamVersion() {
+        Long before = teamRepository.findById(teamId).orElseThrow().getVersion();
+        teamService.addMember(teamId, userId);
+
+        assertEquals(before + 1, teamRepository.findById(teamId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void conflictsMapToConflictStatus() {
+        var response = new GlobalExceptionHandler()
+                .handleOptimisticLockingFailureException(new ObjectOptimisticLockingFailureException(Task.class, taskId));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    private static Task edit(String title, Long version) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(TaskStatus.TODO);
+        task.setVersion(version);
+        return task;
+    }
+}
@@ -0,0 +1,150 @@
+package vector.TaskSync.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.config.SecondLevelCacheConfig;
+import vector.TaskSync.models.*;
+import vector.TaskSync.repositories.ProjectRepository;
+import vector.TaskSync.repositories.TeamRepository;
+import vector.TaskSync.repositories.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "application.cache.second-level.enabled=true"
+})
+@Import({AuditConfig.class, SecondLevelCacheConfig.class, TeamService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long teamId;
+    private Long memberId;
+    private Long newcomerId;
+    private Long projectId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Team team = new Team();
+        team.setName("Platform");
+        teamId = teamRepository.save(team).getId();
+        User member = user("member@example.com");
+        member.setTeams(new ArrayList<>(List.of(team)));
+        memberId = userRepository.save(member).getId();
+        newcomerId = userRepository.save(user("newcomer@example.com")).getId();
+        Project project = new Project();
+        project.setName("Board");
+        project.setTeam(team);
+        projectId = projectRepository.save(project).getId();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        teamService.findTeamById(teamId).orElseThrow();
+        memberEmails();
+        statistics.clear();
+
+        assertEquals("Platform", teamService.findTeamById(teamId).orElseThrow().getName());
+        assertEquals(List.of("member@example.com"), memberEmails());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 3);
+    }
+
+    @Test
+    void addingAndRemovingMembersInvalidatesTheCachedCollection() {
+        memberEmails();
+
+        teamService.addMember(teamId, newcomerId);
+        assertEquals(List.of("member@example.com", "newcomer@example.com"), memberEmails());
+
+        teamService.removeMember(teamId, memberId);
+        assertEquals(List.of("newcomer@example.com"), memberEmails());
+    }
+
+    @Test
+    void taskCounterWritesLeaveTheCachedRegionsWarm() {
+        // A board under load: each round reads the project's team and members, then a task write moves the counters
+        int rounds = 50;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        teamService.findTeamById(teamId).orElseThrow();
+        memberEmails();
+        statistics.clear();
+
+        for (int i = 0; i < rounds; i++) {
+            assertEquals("Platform", teamService.findTeamById(teamId).orElseThrow().getName());
+            assertEquals(List.of("member@example.com"), memberEmails());
+            transaction.executeWithoutResult(status -> projectRepository.adjustTaskCounts(projectId, 1, 1, 0, 0));
+        }
+
+        // Only the counter updates reach the database
+        assertEquals(rounds, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        assertFalse(List.of(statistics.getSecondLevelCacheRegionNames()).contains(Project.class.getName()));
+        assertEquals(rounds, projectRepository.findById(projectId).orElseThrow().getTaskCount());
+    }
+
+    private List<String> memberEmails() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> teamRepository.findById(teamId).orElseThrow().getMembers().stream()
+                .map(User::getEmail)
+                .sorted()
+                .toList());
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email(email)
+                .role(Role.USER)
+                .gender(Gender.OTHER)
+                .build();
+    }
+}
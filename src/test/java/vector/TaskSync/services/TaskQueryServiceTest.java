@@ -0,0 +1,168 @@
+package vector.TaskSync.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.CursorPage;
+import vector.TaskSync.pagination.OffsetCursor;
+import vector.TaskSync.specifications.TaskSpecifications;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "application.tasks.query.max-offset=4"
+})
+@Import({AuditConfig.class, TaskQueryService.class})
+class TaskQueryServiceTest {
+
+    private static final String MEMBER = "member@example.com";
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskQueryService taskQueryService;
+
+    private Project ownProject;
+    private Project otherProject;
+    private User member;
+
+    @BeforeEach
+    void seed() {
+        Team ownTeam = team("Own");
+        Team otherTeam = team("Other");
+        member = entityManager.persist(User.builder()
+                .firstName("Member")
+                .lastName("User")
+                .email(MEMBER)
+                .role(Role.USER)
+                .gender(Gender.OTHER)
+                .teams(new ArrayList<>(List.of(ownTeam)))
+                .build());
+        ownProject = project(ownTeam);
+        otherProject = project(otherTeam);
+
+        task("a", ownProject, TaskStatus.TODO, DAY.plusDays(3), member);
+        task("b", ownProject, TaskStatus.IN_PROGRESS, DAY.plusDays(1), null);
+        task("c", ownProject, TaskStatus.TODO, DAY.plusDays(1), member);
+        task("d", ownProject, TaskStatus.DONE, DAY.plusDays(2), member);
+        task("e", otherProject, TaskStatus.TODO, DAY.plusDays(2), null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void filtersCombine() {
+        TaskFilter filter = new TaskFilter(List.of(TaskStatus.TODO, TaskStatus.DONE), member.getId(), null,
+                ownProject.getId(), DAY.plusDays(1), DAY.plusDays(2));
+
+        assertEquals(List.of("c", "d"), titles(find(filter, List.of("dueDate"), null, 10)));
+    }
+
+    @Test
+    void teamFilterGoesThroughTheProject() {
+        TaskFilter ownTeam = new TaskFilter(null, null, ownProject.getTeam().getId(), null, null, null);
+        TaskFilter otherTeam = new TaskFilter(List.of(TaskStatus.TODO), null, otherProject.getTeam().getId(), null, null, null);
+
+        assertEquals(List.of("b", "c", "d", "a"), titles(find(ownTeam, List.of("dueDate"), null, 10)));
+        assertEquals(List.of("e"), titles(find(otherTeam, List.of(), null, 10)));
+    }
+
+    @Test
+    void sortsByEveryKeyAndPagesThroughTheOrder() {
+        TaskFilter all = new TaskFilter(null, null, null, null, null, null);
+        List<String> sort = List.of("status", "-dueDate");
+
+        CursorPage<TaskDTO> first = find(all, sort, null, 2);
+        CursorPage<TaskDTO> second = find(all, sort, first.nextCursor(), 2);
+        CursorPage<TaskDTO> last = find(all, sort, second.nextCursor(), 2);
+
+        // DONE, IN_PROGRESS, TODO; latest due date first within a status, then by id
+        assertEquals(List.of("d", "b"), titles(first));
+        assertEquals(List.of("a", "e"), titles(second));
+        assertEquals(List.of("c"), titles(last));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void membersOnlySeeTasksOfTheirProjectsTeams() {
+        TaskFilter todo = new TaskFilter(List.of(TaskStatus.TODO), null, null, null, null, null);
+
+        assertEquals(List.of("a", "c"), titles(taskQueryService.findTasks(todo,
+                TaskSpecifications.visibleTo(context(false)), List.of(), null, 10)));
+        assertEquals(List.of("a", "c", "e"), titles(taskQueryService.findTasks(todo,
+                TaskSpecifications.visibleTo(context(true)), List.of(), null, 10)));
+    }
+
+    @Test
+    void rejectsUnsupportedQueries() {
+        TaskFilter all = new TaskFilter(null, null, null, null, null, null);
+        TaskFilter inverted = new TaskFilter(null, null, null, null, DAY.plusDays(2), DAY);
+
+        assertThrows(IllegalStateException.class, () -> find(all, List.of("description"), null, 10));
+        assertThrows(IllegalStateException.class, () -> find(all, List.of("title", "status", "dueDate", "createdDate"), null, 10));
+        assertThrows(IllegalStateException.class, () -> find(inverted, List.of(), null, 10));
+        assertEquals(2, find(all, List.of(), new OffsetCursor(3).encode(), 3).items().size());
+        assertThrows(IllegalStateException.class, () -> find(all, List.of(), new OffsetCursor(5).encode(), 3));
+        // Keyset cursors from other listings are not offsets, and offsets are not keyset cursors
+        assertThrows(IllegalStateException.class, () -> find(all, List.of(), Cursor.of("", 3).encode(), 3));
+        assertThrows(IllegalStateException.class, () -> find(all, List.of(), Cursor.of("2025-03-01T09:00", 1).encode(), 3));
+        assertThrows(IllegalStateException.class, () -> Cursor.decode(new OffsetCursor(3).encode()));
+    }
+
+    private CursorPage<TaskDTO> find(TaskFilter filter, List<String> sort, String cursor, int size) {
+        return taskQueryService.findTasks(filter, Specification.where(null), sort, cursor, size);
+    }
+
+    private static List<String> titles(CursorPage<TaskDTO> page) {
+        return page.items().stream().map(TaskDTO::getTitle).toList();
+    }
+
+    private Team team(String name) {
+        Team team = new Team();
+        team.setName(name);
+        return entityManager.persist(team);
+    }
+
+    private Project project(Team team) {
+        Project project = new Project();
+        project.setName(team.getName() + " board");
+        project.setTeam(team);
+        return entityManager.persist(project);
+    }
+
+    private void task(String title, Project project, TaskStatus status, LocalDateTime dueDate, User assignee) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setProject(project);
+        task.setStatus(status);
+        task.setDueDate(dueDate);
+        task.setAssignee(assignee);
+        entityManager.persist(task);
+    }
+
+    private static AuthorizationContext context(boolean teamLead) {
+        AuthorizationContext context = mock(AuthorizationContext.class);
+        when(context.isTeamLead()).thenReturn(teamLead);
+        when(context.email()).thenReturn(MEMBER);
+        return context;
+    }
+}
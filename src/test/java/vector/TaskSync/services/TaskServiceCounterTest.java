@@ -0,0 +1,90 @@
+package vector.TaskSync.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.Project;
+import vector.TaskSync.models.Task;
+import vector.TaskSync.models.TaskStatus;
+import vector.TaskSync.repositories.ProjectRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({AuditConfig.class, TaskService.class})
+class TaskServiceCounterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Long projectId;
+
+    @BeforeEach
+    void seed() {
+        Project project = new Project();
+        project.setName("Board");
+        projectId = entityManager.persistAndFlush(project).getId();
+    }
+
+    @Test
+    void countersFollowCreateStatusChangeAndDelete() {
+        Task first = taskService.createTask(projectId, task("First", TaskStatus.TODO));
+        Task second = taskService.createTask(projectId, task("Second", TaskStatus.IN_PROGRESS));
+        taskService.createTask(projectId, task("Third", TaskStatus.DONE));
+
+        taskService.updateTask(second.getId(), task("Second", TaskStatus.DONE));
+        taskService.deleteTask(first.getId());
+
+        Project project = reload();
+        assertEquals(2, project.getTaskCount());
+        assertEquals(0, project.getTodoCount());
+        assertEquals(0, project.getInProgressCount());
+        assertEquals(2, project.getDoneCount());
+        assertEquals(100, project.getProgress());
+    }
+
+    @Test
+    void reconcileRebuildsDriftedCounters() {
+        taskService.createTask(projectId, task("First", TaskStatus.TODO));
+        taskService.createTask(projectId, task("Second", TaskStatus.DONE));
+        projectRepository.adjustTaskCounts(projectId, 5, 3, 1, 1);
+        entityManager.flush();
+
+        projectRepository.recountTasks();
+        projectRepository.recomputeProgress();
+
+        Project project = reload();
+        assertEquals(2, project.getTaskCount());
+        assertEquals(1, project.getTodoCount());
+        assertEquals(1, project.getDoneCount());
+        assertEquals(50, project.getProgress());
+    }
+
+    private Project reload() {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(Project.class, projectId);
+    }
+
+    private static Task task(String title, TaskStatus status) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        return task;
+    }
+}
@@ -0,0 +1,129 @@
+package vector.TaskSync.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import vector.TaskSync.config.PasswordHashingService;
+import vector.TaskSync.config.UserCache;
+import vector.TaskSync.models.ChangePasswordRequest;
+import vector.TaskSync.models.Role;
+import vector.TaskSync.models.User;
+import vector.TaskSync.repositories.UserRepository;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final Principal PRINCIPAL = () -> EMAIL;
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final List<Boolean> hashedInTransaction = new ArrayList<>();
+    private PlatformTransactionManager transactionManager;
+    private UserRepository userRepository;
+    private UserCache userCache;
+    private UserService userService;
+    private User stored;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder encoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashedInTransaction.add(inTransaction.get());
+                return super.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashedInTransaction.add(inTransaction.get());
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        stored = User.builder().id(1L).email(EMAIL).role(Role.USER).password(encoder.encode("current")).build();
+        hashedInTransaction.clear();
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).commit(any(TransactionStatus.class));
+        doAnswer(invocation -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).rollback(any(TransactionStatus.class));
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.of(copy(stored)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(stored));
+        userCache = mock(UserCache.class);
+        // Runs the work on the calling thread, which is where the transaction state is tracked
+        PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+        when(passwordHashingService.run(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(passwordHashingService.encode(any())).thenAnswer(invocation -> encoder.encode(invocation.getArgument(0)));
+        userService = new UserService(userRepository, encoder, userCache, passwordHashingService,
+                mock(EntityManagerFactory.class), transactionManager);
+    }
+
+    @Test
+    void hashesBeforeTheWriteTransactionOpens() {
+        userService.changePassword(request("current", "next"), PRINCIPAL);
+
+        assertEquals(List.of(false, false), hashedInTransaction);
+        assertTrue(new BCryptPasswordEncoder().matches("next", stored.getPassword()));
+        verify(transactionManager).commit(any(TransactionStatus.class));
+        verify(userCache).invalidate(EMAIL);
+    }
+
+    @Test
+    void wrongPasswordNeverOpensATransaction() {
+        assertThrows(IllegalStateException.class, () -> userService.changePassword(request("wrong", "next"), PRINCIPAL));
+
+        verify(transactionManager, never()).getTransaction(any());
+        verify(userCache, never()).invalidate(any());
+    }
+
+    @Test
+    void passwordChangedWhileHashingIsNotOverwritten() {
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            stored.setPassword("{bcrypt}changed-meanwhile");
+            return Optional.of(stored);
+        });
+
+        assertThrows(IllegalStateException.class, () -> userService.changePassword(request("current", "next"), PRINCIPAL));
+
+        assertEquals("{bcrypt}changed-meanwhile", stored.getPassword());
+        verify(transactionManager).rollback(any(TransactionStatus.class));
+        verify(userCache, never()).invalidate(any());
+    }
+
+    private static ChangePasswordRequest request(String current, String next) {
+        return ChangePasswordRequest.builder()
+                .currentPassword(current)
+                .newPassword(next)
+                .confirmationPassword(next)
+                .build();
+    }
+
+    private static User copy(User user) {
+        return User.builder().id(user.getId()).email(user.getEmail()).role(user.getRole()).password(user.getPassword()).build();
+    }
+}
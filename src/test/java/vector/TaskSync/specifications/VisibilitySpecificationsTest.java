@@ -0,0 +1,171 @@
+package vector.TaskSync.specifications;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.models.*;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.pagination.KeysetSpecifications;
+import vector.TaskSync.repositories.AttachmentRepository;
+import vector.TaskSync.repositories.CommentRepository;
+import vector.TaskSync.repositories.TeamRepository;
+import vector.TaskSync.services.AuthorizationContext;
+import vector.TaskSync.services.TeamAccessService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import(AuditConfig.class)
+class VisibilitySpecificationsTest {
+
+    private static final String MEMBER = "member@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    private Team ownTeam;
+    private Team otherTeam;
+    private final List<Long> attachmentIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        ownTeam = team("Own");
+        otherTeam = team("Other");
+        entityManager.persist(User.builder()
+                .firstName("Member")
+                .lastName("User")
+                .email(MEMBER)
+                .role(Role.USER)
+                .gender(Gender.OTHER)
+                .teams(new ArrayList<>(List.of(ownTeam)))
+                .build());
+
+        Task ownTask = task(ownTeam);
+        Task otherTask = task(otherTeam);
+        Task teamlessTask = task(null);
+        comment(ownTask, "visible");
+        comment(otherTask, "hidden");
+        attachment(ownTask, "own.txt");
+        attachment(otherTask, "other.txt");
+        attachment(teamlessTask, "shared.txt");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void userSeesOnlyOwnTeams() {
+        AuthorizationContext context = context(false);
+
+        assertEquals(Set.of("visible"), contents(commentRepository.findAll(CommentSpecifications.visibleTo(context))));
+        assertEquals(Set.of("Own"), teamRepository.findAll(TeamSpecifications.visibleTo(context)).stream()
+                .map(Team::getName).collect(Collectors.toSet()));
+        assertEquals(Set.of("own.txt", "shared.txt"), attachmentRepository.findAll(AttachmentSpecifications.visibleTo(context)).stream()
+                .map(Attachment::getFileName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void teamLeadSeesEverything() {
+        AuthorizationContext context = context(true);
+
+        assertEquals(Set.of("visible", "hidden"), contents(commentRepository.findAll(CommentSpecifications.visibleTo(context))));
+        assertEquals(2, teamRepository.findAll(TeamSpecifications.visibleTo(context)).size());
+        assertEquals(3, attachmentRepository.findAll(AttachmentSpecifications.visibleTo(context)).size());
+    }
+
+    @Test
+    void attachmentAccessFollowsTheProjectTeamAndFailsClosed() {
+        AuthorizationContext context = context(false);
+        when(context.isMemberOf(ownTeam.getId())).thenReturn(true);
+        TeamAccessService access = new TeamAccessService(context, null, null, attachmentRepository);
+
+        assertTrue(access.canAccessAttachment(attachmentIds.get(0)));
+        assertFalse(access.canAccessAttachment(attachmentIds.get(1)));
+        assertFalse(access.canAccessAttachment(attachmentIds.get(2)));
+        assertFalse(access.canAccessAttachment(-1L));
+    }
+
+    @Test
+    void visibilityComposesWithKeysetPages() {
+        Specification<Attachment> visible = AttachmentSpecifications.visibleTo(context(false));
+
+        List<Attachment> first = attachmentRepository.findBy(visible, query -> query.sortBy(KeysetSpecifications.BY_ID).limit(1).all());
+        Cursor cursor = Cursor.of(first.get(0).getId(), first.get(0).getId());
+        List<Attachment> rest = attachmentRepository.findBy(visible.and(KeysetSpecifications.idAfter(cursor)),
+                query -> query.sortBy(KeysetSpecifications.BY_ID).limit(10).all());
+
+        assertEquals("own.txt", first.get(0).getFileName());
+        assertEquals(List.of("shared.txt"), rest.stream().map(Attachment::getFileName).toList());
+    }
+
+    private static AuthorizationContext context(boolean teamLead) {
+        AuthorizationContext context = mock(AuthorizationContext.class);
+        when(context.isTeamLead()).thenReturn(teamLead);
+        when(context.email()).thenReturn(MEMBER);
+        return context;
+    }
+
+    private static Set<String> contents(List<Comment> comments) {
+        return comments.stream().map(Comment::getContent).collect(Collectors.toSet());
+    }
+
+    private Team team(String name) {
+        Team team = new Team();
+        team.setName(name);
+        return entityManager.persist(team);
+    }
+
+    private Task task(Team team) {
+        Project project = new Project();
+        project.setName("Board");
+        project.setTeam(team);
+        entityManager.persist(project);
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setProject(project);
+        task.setTeam(team);
+        return entityManager.persist(task);
+    }
+
+    private void comment(Task task, String content) {
+        Comment comment = new Comment();
+        comment.setTask(task);
+        comment.setContent(content);
+        entityManager.persist(comment);
+    }
+
+    private void attachment(Task task, String fileName) {
+        Attachment attachment = new Attachment();
+        attachment.setTask(task);
+        attachment.setFileName(fileName);
+        attachment.setFileUrl("https://files.example.com/" + fileName);
+        attachmentIds.add(entityManager.persist(attachment).getId());
+    }
+}
@@ -0,0 +1,160 @@
+package vector.TaskSync.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import vector.TaskSync.audit.AuditConfig;
+import vector.TaskSync.boards.BoardChangedEvent;
+import vector.TaskSync.boards.BoardEventType;
+import vector.TaskSync.models.*;
+import vector.TaskSync.pagination.Cursor;
+import vector.TaskSync.repositories.SyncChangeRepository;
+import vector.TaskSync.services.ChangedEntityLoader;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "application.sync.max-changes=3"
+})
+@Import({AuditConfig.class, SyncService.class, SyncChangeRecorder.class, ChangedEntityLoader.class})
+class SyncServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private SyncChangeRecorder recorder;
+
+    @Autowired
+    private SyncChangeRepository syncChangeRepository;
+
+    private Team ownTeam;
+    private Project ownProject;
+    private Project otherProject;
+    private LongPredicate member;
+
+    @BeforeEach
+    void seed() {
+        ownTeam = team("Own");
+        ownProject = project(ownTeam);
+        otherProject = project(team("Other"));
+        member = teamId -> teamId == ownTeam.getId();
+    }
+
+    @Test
+    void returnsEachVisibleChangeOnceInItsCurrentState() {
+        // Ids used by rolled back tests leave a gap below the first change, which sync would wait out
+        recorder.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_DELETED, ownProject.getId(), 0L));
+        String start = syncService.changesSince(null, member).getWatermark();
+
+        Task kept = task(ownProject, "kept");
+        Task removed = task(ownProject, "removed");
+        Task hidden = task(otherProject, "hidden");
+        Comment comment = comment(kept);
+        recorder.onBoardChanged(new BoardChangedEvent(BoardEventType.TASK_CREATED, ownProject.getId(),
+                List.of(kept.getId(), removed.getId())));
+        recorder.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_CREATED, otherProject.getId(), hidden.getId()));
+        kept.setTitle("kept and renamed");
+        recorder.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_UPDATED, ownProject.getId(), kept.getId()));
+        recorder.onBoardChanged(BoardChangedEvent.of(BoardEventType.COMMENT_CREATED, ownProject.getId(), comment.getId()));
+        entityManager.remove(removed);
+        recorder.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_DELETED, ownProject.getId(), removed.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        SyncResponse first = syncService.changesSince(start, member);
+        assertFalse(first.isReset());
+        assertTrue(first.isHasMore());
+        // Rows are read as they are now, not as they were when the change was logged
+        assertEquals(List.of("kept and renamed"), first.getTasks().stream().map(TaskDTO::getTitle).toList());
+        assertEquals(List.of(removed.getId()), first.getDeletedTaskIds());
+
+        SyncResponse second = syncService.changesSince(first.getWatermark(), member);
+        assertFalse(second.isHasMore());
+        assertEquals(List.of(kept.getId()), second.getTasks().stream().map(TaskDTO::getId).toList());
+        assertEquals(List.of(comment.getId()), second.getComments().stream().map(CommentDTO::getId).toList());
+        assertEquals(List.of(removed.getId()), second.getDeletedTaskIds());
+
+        SyncResponse third = syncService.changesSince(second.getWatermark(), member);
+        assertTrue(third.getTasks().isEmpty() && third.getComments().isEmpty() && third.getDeletedTaskIds().isEmpty());
+        assertEquals(Cursor.decode(second.getWatermark()).id(), Cursor.decode(third.getWatermark()).id());
+    }
+
+    @Test
+    void stopsBeforeARecentGapUntilTheGracePeriodIsOver() {
+        String start = syncService.changesSince(null, member).getWatermark();
+        Task task = task(ownProject, "task");
+        SyncChange inFlight = syncChangeRepository.save(new SyncChange(ChangedEntity.TASK, task.getId(), ownProject.getId(), LocalDateTime.now()));
+        SyncChange after = syncChangeRepository.save(new SyncChange(ChangedEntity.TASK, task.getId(), ownProject.getId(), LocalDateTime.now()));
+        // As if the first write had not committed yet
+        syncChangeRepository.delete(inFlight);
+        syncChangeRepository.flush();
+
+        SyncResponse waiting = syncService.changesSince(start, member);
+        assertTrue(waiting.getTasks().isEmpty());
+        assertTrue(waiting.isHasMore());
+        assertEquals(Cursor.decode(start).id(), Cursor.decode(waiting.getWatermark()).id());
+
+        after.setChangedAt(LocalDateTime.now().minusMinutes(5));
+        syncChangeRepository.flush();
+        SyncResponse settled = syncService.changesSince(start, member);
+        assertEquals(List.of(task.getId()), settled.getTasks().stream().map(TaskDTO::getId).toList());
+        assertEquals(after.getId(), Cursor.decode(settled.getWatermark()).id());
+    }
+
+    @Test
+    void missingOrExpiredWatermarksAskForAReload() {
+        recorder.onBoardChanged(BoardChangedEvent.of(BoardEventType.TASK_CREATED, ownProject.getId(), task(ownProject, "task").getId()));
+        long latest = syncChangeRepository.findLatestId().orElseThrow();
+
+        SyncResponse fresh = syncService.changesSince(null, member);
+        assertTrue(fresh.isReset());
+        assertEquals(latest, Cursor.decode(fresh.getWatermark()).id());
+
+        String expired = Cursor.of(LocalDateTime.now().minusDays(60), 0).encode();
+        assertTrue(syncService.changesSince(expired, member).isReset());
+        assertThrows(IllegalStateException.class, () -> syncService.changesSince("not-a-watermark", member));
+    }
+
+    private Team team(String name) {
+        Team team = new Team();
+        team.setName(name);
+        return entityManager.persist(team);
+    }
+
+    private Project project(Team team) {
+        Project project = new Project();
+        project.setName(team.getName() + " board");
+        project.setTeam(team);
+        return entityManager.persist(project);
+    }
+
+    private Task task(Project project, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(TaskStatus.TODO);
+        task.setProject(project);
+        return entityManager.persist(task);
+    }
+
+    private Comment comment(Task task) {
+        Comment comment = new Comment();
+        comment.setContent("A comment");
+        comment.setTask(task);
+        return entityManager.persist(comment);
+    }
+}